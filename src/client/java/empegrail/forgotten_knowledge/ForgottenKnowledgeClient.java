@@ -1,10 +1,18 @@
 package empegrail.forgotten_knowledge;
 
+import empegrail.forgotten_knowledge.fx.SpellFxRenderer;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.rendering.v1.EntityRendererRegistry;
+import net.minecraft.client.render.entity.FlyingItemEntityRenderer;
 
 public class ForgottenKnowledgeClient implements ClientModInitializer {
 	@Override
 	public void onInitializeClient() {
+		// Spell projectiles render as their flying item, like snowballs and fire charges
+		EntityRendererRegistry.register(ModEntities.FIRE_BOLT, FlyingItemEntityRenderer::new);
+		EntityRendererRegistry.register(ModEntities.ICE_SPEAR, FlyingItemEntityRenderer::new);
 
+		// Spell visuals the server describes instead of streaming as particles
+		SpellFxRenderer.register();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package empegrail.forgotten_knowledge.fx;
+
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * Turns {@link SpellFxPayload}s from the server into particles on this client.
+ *
+ * Emissions are expanded the same way the vanilla particle packet handler does it, using the seed from
+ * the payload, so the effect looks just like the server-side fallback.
+ */
+public final class SpellFxRenderer {
+	private SpellFxRenderer() {}
+
+	public static void register() {
+		// Payload handlers already run on the client thread
+		ClientPlayNetworking.registerGlobalReceiver(SpellFxPayload.ID,
+				(payload, context) -> render(context.client(), payload));
+	}
+
+	private static void render(MinecraftClient client, SpellFxPayload payload) {
+		ClientWorld world = client.world;
+		if (world == null) return;
+
+		Random random = Random.create(payload.seed());
+		payload.type().expand(payload, (effect, x, y, z, count, dx, dy, dz, speed) -> {
+			if (count == 0) {
+				// Directional particle: the deltas are its velocity
+				world.addParticle(effect, x, y, z, dx * speed, dy * speed, dz * speed);
+				return;
+			}
+			for (int i = 0; i < count; i++) {
+				world.addParticle(effect,
+						x + random.nextGaussian() * dx,
+						y + random.nextGaussian() * dy,
+						z + random.nextGaussian() * dz,
+						random.nextGaussian() * speed,
+						random.nextGaussian() * speed,
+						random.nextGaussian() * speed);
+			}
+		});
+	}
+}
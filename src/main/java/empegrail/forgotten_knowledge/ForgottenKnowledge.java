@@ -1,5 +1,14 @@
 package empegrail.forgotten_knowledge;
 
+import empegrail.forgotten_knowledge.cast.CastLimiter;
+import empegrail.forgotten_knowledge.fx.SpellFx;
+import empegrail.forgotten_knowledge.metrics.SpellMetrics;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import empegrail.forgotten_knowledge.replay.CastRecorder;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import empegrail.forgotten_knowledge.state.SpellStates;
+import empegrail.forgotten_knowledge.world.BlockEditEngine;
 import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,12 +19,44 @@ public class ForgottenKnowledge implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        // Server settings are needed by everything below
+        ModConfig.load();
+
         // Register data components first
         ModDataComponents.registerDataComponents();
 
         // register items and anything else that depends on registries being ready
         ModItems.initialize();
-        empegrail.forgotten_knowledge.spell.ModSpellRegistry.register(); // register recipes
+        ModEntities.initialize();
+        empegrail.forgotten_knowledge.spell.ModSpellRegistry.register(); // load recipes from datapacks
+        empegrail.forgotten_knowledge.spell.SpellRecipeIndex.register(); // compile recipes when the server starts or reloads
+
+        // tick-driven scheduler for delayed spell phases
+        SpellScheduler.register();
+
+        // per-tick time budget for casts and scheduled spell phases
+        SpellGovernor.register();
+
+        // per-server, per-world spell state: scheduler wheels and expiring entity marks
+        SpellStates.register();
+
+        // per-player, per-tome cast rate limits
+        CastLimiter.register();
+
+        // incremental bulk block edits (large vanish casts)
+        BlockEditEngine.register();
+
+        // per-tick particle batching for spell visuals
+        SpellFx.register();
+
+        // per-tome cast profile and the /forgottenknowledge profile command
+        SpellProfiler.register();
+
+        // opt-in Prometheus metrics (HTTP endpoint or node-exporter textfile)
+        SpellMetrics.register();
+
+        // /forgottenknowledge record and replay, for measuring builds on a recorded workload
+        CastRecorder.register();
     }
 }
 
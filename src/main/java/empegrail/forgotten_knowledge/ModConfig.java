@@ -0,0 +1,265 @@
+package empegrail.forgotten_knowledge;
+
+import empegrail.forgotten_knowledge.cast.CastLimit;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.world.Heightmap;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Server-side tuning knobs, read from config/forgotten_knowledge.properties.
+ *
+ * Missing keys are written back with their defaults so admins can see everything that can be tuned.
+ *
+ * NOTE: Call ModConfig.load() first thing in the mod initializer.
+ */
+public final class ModConfig {
+    private static final String FILE_NAME = ForgottenKnowledge.MOD_ID + ".properties";
+
+    private ModConfig() {}
+
+    // --- Block edit jobs (large VANISH_OBJECT casts) ---
+    // Most blocks a single edit job may visit per tick
+    public static int blockEditBlocksPerTick = 4096;
+    // Most milliseconds of a tick a single edit job may use; all jobs together are held to
+    // spellWorkBudgetMillis along with the rest of the spell work
+    public static double blockEditMaxMillisPerTick = 5.0;
+
+    // --- Surface lookup (FROST) ---
+    // Heightmap used to find the top block of a column: WORLD_SURFACE matches "first non-air block",
+    // MOTION_BLOCKING skips grass and flowers, OCEAN_FLOOR ignores water
+    public static Heightmap.Type surfaceHeightmap = Heightmap.Type.WORLD_SURFACE;
+
+    // --- Particle budget ---
+    // Most spell particles a single player is sent per tick (before load scaling)
+    public static int particleBudgetPerPlayerPerTick = 1500;
+    // Viewers closer than this get every particle
+    public static double particleFullDetailDistance = 8.0;
+    // Share of the particles a viewer at the edge of particle range still gets
+    public static double particleMinDistanceScale = 0.25;
+    // Above this rolling MSPT, particles are scaled down by threshold / mspt
+    public static double particleMsptThreshold = 40.0;
+    // Load scaling never goes below this share
+    public static double particleMinLoadScale = 0.1;
+
+    // --- Spell work governor ---
+    // Milliseconds per tick all casts and scheduled spell phases together may take before the rest waits
+    public static double spellWorkBudgetMillis = 10.0;
+
+    // --- Cast admission (estimated cost per cast) ---
+    // Highest level a tome can be upgraded to in the anvil
+    public static int maxTomeLevel = 10;
+    // Most blocks a single cast may touch
+    public static long castMaxBlocks = 262_144;
+    // Largest volume (in blocks) a single cast may search for entities
+    public static long castMaxEntityVolume = 1_000_000;
+    // Most particles a single cast may send
+    public static long castMaxParticles = 20_000;
+    // Casts over a limit go off at the highest level that fits instead of being refused
+    public static boolean castDowngradeOverLimit = true;
+
+    // --- Metrics export (Prometheus text format) ---
+    // Off unless an admin turns it on
+    public static boolean metricsEnabled = false;
+    // Address and port of the /metrics endpoint; keep it on loopback unless a firewall is in front
+    public static String metricsBindAddress = "127.0.0.1";
+    public static int metricsPort = 9464;
+    // When set, metrics are written to this file (for node-exporter's textfile collector) instead of served
+    public static String metricsTextfile = "";
+    public static int metricsTextfileIntervalSeconds = 15;
+
+    // --- Cast limits (per tome) ---
+    // "baseTicks,ticksPerLevel,burst": one cast recharges every baseTicks + ticksPerLevel * (level - 1) ticks
+    // and up to burst casts can be stored. Tomes without their own key use cooldown.default.
+    public static CastLimit defaultCastLimit = new CastLimit(20, 10, 2);
+    private static final Map<String, CastLimit> castLimits = new HashMap<>();
+
+    // Heavier spells recharge slower; everything else uses the default
+    private static final Map<String, CastLimit> DEFAULT_CAST_LIMITS = new LinkedHashMap<>();
+    static {
+        DEFAULT_CAST_LIMITS.put("vanishment_tome", new CastLimit(40, 40, 1));
+        DEFAULT_CAST_LIMITS.put("firewave_tome", new CastLimit(60, 20, 1));
+        DEFAULT_CAST_LIMITS.put("explosion_tome", new CastLimit(40, 20, 1));
+        DEFAULT_CAST_LIMITS.put("holy_tome", new CastLimit(60, 20, 1));
+        DEFAULT_CAST_LIMITS.put("vermin_tome", new CastLimit(60, 20, 1));
+        DEFAULT_CAST_LIMITS.put("frost_tome", new CastLimit(40, 20, 1));
+        DEFAULT_CAST_LIMITS.put("feather_tome", new CastLimit(100, 0, 1));
+        DEFAULT_CAST_LIMITS.put("firebolt_tome", new CastLimit(10, 5, 3));
+        DEFAULT_CAST_LIMITS.put("ice_tome", new CastLimit(10, 5, 3));
+    }
+
+    public static void load() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+        Properties props = new Properties();
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                props.load(reader);
+            } catch (IOException e) {
+                ForgottenKnowledge.LOGGER.warn("Could not read {}, using defaults", path, e);
+            }
+        }
+
+        int keysBefore = props.size();
+
+        blockEditBlocksPerTick = getInt(props, "blockEdit.blocksPerTick", blockEditBlocksPerTick, 1);
+        blockEditMaxMillisPerTick = getDouble(props, "blockEdit.maxMillisPerTick", blockEditMaxMillisPerTick, 0.1);
+        surfaceHeightmap = getHeightmap(props, "surface.heightmap", surfaceHeightmap);
+        particleBudgetPerPlayerPerTick = getInt(props, "particles.budgetPerPlayerPerTick", particleBudgetPerPlayerPerTick, 0);
+        particleFullDetailDistance = getDouble(props, "particles.fullDetailDistance", particleFullDetailDistance, 0.0);
+        particleMinDistanceScale = Math.min(1.0, getDouble(props, "particles.minDistanceScale", particleMinDistanceScale, 0.0));
+        particleMsptThreshold = getDouble(props, "particles.msptThreshold", particleMsptThreshold, 1.0);
+        particleMinLoadScale = Math.min(1.0, getDouble(props, "particles.minLoadScale", particleMinLoadScale, 0.0));
+        spellWorkBudgetMillis = getDouble(props, "governor.budgetMillisPerTick", spellWorkBudgetMillis, 0.1);
+        maxTomeLevel = getInt(props, "cast.maxTomeLevel", maxTomeLevel, 1);
+        castMaxBlocks = getLong(props, "cast.maxBlocks", castMaxBlocks, 1);
+        castMaxEntityVolume = getLong(props, "cast.maxEntityVolume", castMaxEntityVolume, 1);
+        castMaxParticles = getLong(props, "cast.maxParticles", castMaxParticles, 1);
+        castDowngradeOverLimit = getBoolean(props, "cast.downgradeOverLimit", castDowngradeOverLimit);
+        metricsEnabled = getBoolean(props, "metrics.enabled", metricsEnabled);
+        metricsBindAddress = getString(props, "metrics.bindAddress", metricsBindAddress);
+        metricsPort = getInt(props, "metrics.port", metricsPort, 1, 65535);
+        metricsTextfile = getString(props, "metrics.textfile", metricsTextfile);
+        metricsTextfileIntervalSeconds = getInt(props, "metrics.textfileIntervalSeconds", metricsTextfileIntervalSeconds, 1);
+        defaultCastLimit = getCastLimit(props, "cooldown.default", defaultCastLimit);
+        castLimits.clear();
+        DEFAULT_CAST_LIMITS.forEach((tome, def) -> castLimits.put(tome, getCastLimit(props, "cooldown." + tome, def)));
+        // Admins may also add keys for tomes that use the default
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith("cooldown.") && !key.equals("cooldown.default")) {
+                String tome = key.substring("cooldown.".length());
+                castLimits.computeIfAbsent(tome, t -> getCastLimit(props, key, defaultCastLimit));
+            }
+        }
+
+        // Only touch the file when we added defaults for missing keys
+        if (props.size() != keysBefore) {
+            try {
+                Files.createDirectories(path.getParent());
+                try (Writer writer = Files.newBufferedWriter(path)) {
+                    props.store(writer, "Forgotten Knowledge server settings");
+                }
+            } catch (IOException e) {
+                ForgottenKnowledge.LOGGER.warn("Could not write {}", path, e);
+            }
+        }
+    }
+
+    /**
+     * Cast limit for the tome with the given item id path.
+     */
+    public static CastLimit castLimit(String tome) {
+        return castLimits.getOrDefault(tome, defaultCastLimit);
+    }
+
+    private static CastLimit getCastLimit(Properties props, String key, CastLimit def) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, def.toString());
+            return def;
+        }
+        try {
+            String[] parts = value.split(",");
+            if (parts.length != 3) throw new NumberFormatException(value);
+            return new CastLimit(
+                    Math.max(0, Integer.parseInt(parts[0].trim())),
+                    Math.max(0, Integer.parseInt(parts[1].trim())),
+                    Math.max(1, Integer.parseInt(parts[2].trim())));
+        } catch (NumberFormatException e) {
+            ForgottenKnowledge.LOGGER.warn("Invalid cast limit '{}' for {}, using {}", value, key, def);
+            return def;
+        }
+    }
+
+    private static String getString(Properties props, String key, String def) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, def);
+            return def;
+        }
+        return value.trim();
+    }
+
+    private static boolean getBoolean(Properties props, String key, boolean def) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, Boolean.toString(def));
+            return def;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    private static int getInt(Properties props, String key, int def, int min, int max) {
+        return Math.min(max, getInt(props, key, def, min));
+    }
+
+    private static int getInt(Properties props, String key, int def, int min) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, Integer.toString(def));
+            return def;
+        }
+        try {
+            return Math.max(min, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            ForgottenKnowledge.LOGGER.warn("Invalid value '{}' for {}, using {}", value, key, def);
+            return def;
+        }
+    }
+
+    private static long getLong(Properties props, String key, long def, long min) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, Long.toString(def));
+            return def;
+        }
+        try {
+            return Math.max(min, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            ForgottenKnowledge.LOGGER.warn("Invalid value '{}' for {}, using {}", value, key, def);
+            return def;
+        }
+    }
+
+    private static Heightmap.Type getHeightmap(Properties props, String key, Heightmap.Type def) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, def.name());
+            return def;
+        }
+        try {
+            Heightmap.Type type = Heightmap.Type.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            // Worldgen-only heightmaps are dropped once a chunk is fully generated
+            if (type == Heightmap.Type.WORLD_SURFACE_WG || type == Heightmap.Type.OCEAN_FLOOR_WG) {
+                throw new IllegalArgumentException(value);
+            }
+            return type;
+        } catch (IllegalArgumentException e) {
+            ForgottenKnowledge.LOGGER.warn("Invalid heightmap '{}' for {}, using {}", value, key, def);
+            return def;
+        }
+    }
+
+    private static double getDouble(Properties props, String key, double def, double min) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            props.setProperty(key, Double.toString(def));
+            return def;
+        }
+        try {
+            return Math.max(min, Double.parseDouble(value.trim()));
+        } catch (NumberFormatException e) {
+            ForgottenKnowledge.LOGGER.warn("Invalid value '{}' for {}, using {}", value, key, def);
+            return def;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package empegrail.forgotten_knowledge;
+
+import empegrail.forgotten_knowledge.entity.FireBoltEntity;
+import empegrail.forgotten_knowledge.entity.IceSpearEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.SpawnGroup;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.util.Identifier;
+
+/**
+ * Central entity type registration for ForgottenKnowledge.
+ *
+ * NOTE: Call ModEntities.initialize() from your mod initializer (ForgottenKnowledge.onInitialize).
+ */
+public final class ModEntities {
+    private ModEntities() {}
+
+    public static EntityType<FireBoltEntity> FIRE_BOLT;
+    public static EntityType<IceSpearEntity> ICE_SPEAR;
+
+    private static <T extends Entity> EntityType<T> register(String name, EntityType.Builder<T> builder) {
+        RegistryKey<EntityType<?>> key = RegistryKey.of(RegistryKeys.ENTITY_TYPE, Identifier.of(ForgottenKnowledge.MOD_ID, name));
+        return Registry.register(Registries.ENTITY_TYPE, key, builder.build(key));
+    }
+
+    public static void initialize() {
+        // Small, fast projectiles tracked like snowballs
+        FIRE_BOLT = register("fire_bolt", EntityType.Builder.<FireBoltEntity>create(FireBoltEntity::new, SpawnGroup.MISC)
+                .dimensions(0.3125f, 0.3125f)
+                .maxTrackingRange(4)
+                .trackingTickInterval(10));
+
+        ICE_SPEAR = register("ice_spear", EntityType.Builder.<IceSpearEntity>create(IceSpearEntity::new, SpawnGroup.MISC)
+                .dimensions(0.3125f, 0.3125f)
+                .maxTrackingRange(4)
+                .trackingTickInterval(10));
+    }
+}
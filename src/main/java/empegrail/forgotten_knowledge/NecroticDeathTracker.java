@@ -1,24 +1,21 @@
 package empegrail.forgotten_knowledge;
 
+import empegrail.forgotten_knowledge.fx.SpellFx;
+import empegrail.forgotten_knowledge.state.SpellStates;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 public class NecroticDeathTracker {
-    private static final Map<UUID, Integer> trackedEntities = new HashMap<>();
-
-    public static void trackEntity(LivingEntity entity, int level) {
-        trackedEntities.put(entity.getUuid(), level);
+    // The mark lasts as long as the wither it came with; a mob that outlives it dies normally
+    public static void trackEntity(LivingEntity entity, int level, int durationTicks) {
+        SpellStates.NECROTIC.put(entity, level, durationTicks);
     }
 
     public static void onEntityDeath(LivingEntity entity) {
-        Integer level = trackedEntities.remove(entity.getUuid());
+        Integer level = SpellStates.NECROTIC.remove(entity);
         if (level != null && level >= 3) {
             // Entity died with necrotic effect level 3+
             spawnDisintegrationEffect(entity, level);
@@ -30,7 +27,7 @@ public class NecroticDeathTracker {
             int particleCount = 30 + (level * 10);
 
             for (int i = 0; i < particleCount; i++) {
-                serverWorld.spawnParticles(
+                SpellFx.particles(serverWorld,
                         ParticleTypes.ASH,
                         entity.getX(),
                         entity.getY() + entity.getHeight() / 2,
@@ -40,7 +37,7 @@ public class NecroticDeathTracker {
                         0.1 // speed
                 );
 
-                serverWorld.spawnParticles(
+                SpellFx.particles(serverWorld,
                         ParticleTypes.SMOKE,
                         entity.getX(),
                         entity.getY() + entity.getHeight() / 2,
@@ -51,7 +48,7 @@ public class NecroticDeathTracker {
                 );
 
                 if (level >= 4) {
-                    serverWorld.spawnParticles(
+                    SpellFx.particles(serverWorld,
                             ParticleTypes.SOUL_FIRE_FLAME,
                             entity.getX(),
                             entity.getY() + entity.getHeight() / 2,
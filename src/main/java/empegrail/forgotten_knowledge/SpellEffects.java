@@ -1,6 +1,21 @@
 package empegrail.forgotten_knowledge;
 
-import net.minecraft.block.Block;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import empegrail.forgotten_knowledge.cast.CastCost;
+import empegrail.forgotten_knowledge.entity.FireBoltEntity;
+import empegrail.forgotten_knowledge.entity.IceSpearEntity;
+import empegrail.forgotten_knowledge.fx.SpellFx;
+import empegrail.forgotten_knowledge.fx.SpellFxType;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import empegrail.forgotten_knowledge.state.SpellStates;
+import empegrail.forgotten_knowledge.state.TemporaryFlight;
+import empegrail.forgotten_knowledge.world.BlockEditEngine;
+import empegrail.forgotten_knowledge.world.BlockEditJob;
+import empegrail.forgotten_knowledge.world.SectionBatchWriter;
+import empegrail.forgotten_knowledge.world.SpellShapes;
+import empegrail.forgotten_knowledge.world.SurfaceLocator;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.entity.EntityType;
@@ -11,6 +26,7 @@ import net.minecraft.entity.projectile.SmallFireballEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
@@ -20,7 +36,6 @@ import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraft.entity.player.PlayerEntity;
@@ -29,10 +44,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.util.math.Box;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
 /**
  * Small collection of example SpellEffect implementations.
@@ -51,6 +63,104 @@ public final class SpellEffects {
         return 1.0f + (level - 1) * 0.5f; // Level 1: 1.0x, Level 2: 1.5x, Level 3: 2.0x, etc.
     }
 
+    // Helper: baseSeconds * 2^(level - 1) seconds in ticks, saturating at Integer.MAX_VALUE instead of
+    // overflowing (which the int math used to do in the mid-20s levels)
+    private static int doublingDurationTicks(int baseSeconds, int level) {
+        int doublings = Math.min(Math.max(level - 1, 0), 30);
+        long ticks = ((long) baseSeconds * 20) << doublings;
+        return (int) Math.min(ticks, Integer.MAX_VALUE);
+    }
+
+    // VANISH_OBJECT cube side: 1-4 linear, then exponential (8, 16, 32, 64, etc.)
+    private static int vanishSize(int level) {
+        return level <= 4 ? level : 1 << Math.min(level - 2, 30);
+    }
+
+    // FIRE_WAVE reach. Level 1: 4, Level 2: 6, Level 3: 8, etc.
+    private static int fireWaveRadius(int level) {
+        return 4 + (level - 1) * 2;
+    }
+
+    // HOLY_NOVA reach: 6, 9, 12, 15, then +5 per level
+    private static int novaRadius(int level) {
+        return level <= 4 ? 3 + level * 3 : 15 + (level - 4) * 5;
+    }
+
+    // VERMIN_BANE reach: 6, 9, 12, 15, then +3 per level
+    private static int verminRadius(int level) {
+        return level <= 4 ? 3 + level * 3 : 15 + (level - 4) * 3;
+    }
+
+    // FROST area side
+    private static int frostSize(int level) {
+        switch (level) {
+            case 1: return 9;
+            case 2: return 12;
+            case 3: return 18;
+            case 4: return 24;
+            case 5: return 32;
+            case 6: return 52;
+            default: return 52 + (level - 6) * 20; // Continue scaling beyond level 6
+        }
+    }
+
+    /**
+     * Rough upper bound of what casting the effect at this level costs the server: blocks visited, volume
+     * searched for entities and particles sent. Follows the same scaling as the effects themselves.
+     */
+    public static CastCost estimateCost(SpellEffect effect, int level) {
+        double scale = getScaleFactor(level);
+
+        if (effect == VANISH_OBJECT) {
+            double size = vanishSize(level);
+            // Every block of the cube, plus the outline and (level 6+) the buildup particles
+            return CastCost.of(size * size * size, 0, size * 12 + (level >= 6 ? size * 10 : 0));
+        }
+        if (effect == EXPLOSION) {
+            double power = 3.0 * scale;
+            // Vanilla casts 1352 rays that step 0.3 blocks until up to 1.3 * power strength is used up
+            return CastCost.of(1352 * (1.3 * power / 0.225), cube(power * 4), 0);
+        }
+        if (effect == FIRE_WAVE) {
+            double radius = fireWaveRadius(level);
+            double ringBlocks = 2 * Math.PI * radius * (radius + 1) / 2;
+            // Two waves of rings 1..radius, each ring queried over its own bounds
+            return CastCost.of(ringBlocks * 2 * 2, 2 * radius * (2 * radius + 2) * (2 * radius + 2) * 2, ringBlocks * 2 * 5);
+        }
+        if (effect == FROST) {
+            double size = frostSize(level);
+            return CastCost.of(size * size, size * size * 5, size * 5 + (level >= 6 ? size * size : 0));
+        }
+        if (effect == HOLY_NOVA || effect == VERMIN_BANE) {
+            double radius = effect == HOLY_NOVA ? novaRadius(level) : verminRadius(level);
+            return CastCost.of(0, 2 * radius * 2 * radius * 5, 500 + 40 * level);
+        }
+        if (effect == BIND) {
+            return CastCost.of(81, 81 * 5, 81 * 3);
+        }
+        if (effect == IGNITE || effect == SWORD_SLASH) {
+            // The search box spans the whole line of sight, worst case diagonally
+            double range = 20.0 * scale;
+            return CastCost.of(0, cube(range + 2 * scale), range * 5);
+        }
+        if (effect == NECROTIC) {
+            return CastCost.of(0, cube(22.0), 50 + 10 * level);
+        }
+        if (effect == FIRE_BOLT || effect == ICE_SPEAR) {
+            // One block walk and one entity sweep per tick of flight
+            double distance = 50.0 + level * 10.0;
+            return CastCost.of(distance, distance * 4, distance * 2);
+        }
+        if (effect == LIGHTNING_STRIKE) {
+            return CastCost.of(0, level * cube(6.0), 0);
+        }
+        return CastCost.of(0, 0, 20 + 5 * level);
+    }
+
+    private static double cube(double side) {
+        return side * side * side;
+    }
+
     // Helper: Create a player attack DamageSource that works across mappings/versions
     private static DamageSource createPlayerAttackSource(ServerWorld world, PlayerEntity player) {
         try {
@@ -137,15 +247,7 @@ public final class SpellEffects {
 
         boolean vanishedAny = false;
 
-        // New scaling system - simple and clean
-        int size;
-        if (level <= 4) {
-            // Levels 1-4: linear scaling (1, 2, 3, 4)
-            size = level;
-        } else {
-            // Levels 5+: exponential scaling (8, 16, 32, 64, etc.)
-            size = (int) Math.pow(2, level - 2);
-        }
+        int size = vanishSize(level);
 
         // Calculate the offset to make it dig into the surface
         int offset = size / 2;
@@ -153,61 +255,45 @@ public final class SpellEffects {
         // For level 6 and above, create a dramatic particle buildup
         if (level >= 6 && world instanceof ServerWorld serverWorld) {
             // First, spawn particles that flow from player to form the shape
-            spawnParticleBuildup(serverWorld, user, targetPos, size, offset);
-
-            // Then remove the blocks after a short delay to let the particles be seen
-            serverWorld.getServer().execute(() -> {
-                // Small delay to allow particles to be visible
-                try {
-                    Thread.sleep(800); // 0.8 second delay for drama
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
-                // Now remove the blocks
-                for (int x = -offset; x < size - offset; x++) {
-                    for (int y = -offset; y < size - offset; y++) {
-                        for (int z = -offset; z < size - offset; z++) {
-                            BlockPos currentPos = targetPos.add(x, y, z);
-                            BlockState state = world.getBlockState(currentPos);
-
-                            if (state.isAir() || state.getBlock().getHardness() < 0) {
-                                continue;
-                            }
-
-                            world.setBlockState(currentPos, Blocks.AIR.getDefaultState(), Block.NOTIFY_ALL);
-                        }
-                    }
-                }
-            });
+            spawnParticleBuildup(serverWorld, user, targetPos, size, offset, level);
+
+            // Then remove the blocks after a short delay to let the particles be seen.
+            // The cube can be millions of blocks, so the removal runs as an edit job spread over several ticks.
+            SpellScheduler.schedule(serverWorld, user, 16, () -> // 0.8 second delay for drama
+                    BlockEditEngine.submit(new BlockEditJob(
+                            serverWorld, user, "Vanishing",
+                            targetPos.add(-offset, -offset, -offset), size, size, size,
+                            (w, pos, state) -> state.isAir() || state.getBlock().getHardness() < 0
+                                    ? null
+                                    : Blocks.AIR.getDefaultState()
+                    )));
 
             return true; // We've scheduled the removal, so return true immediately
         }
-        else {
-            // For levels 1-5, immediate removal (original behavior)
-            for (int x = -offset; x < size - offset; x++) {
-                for (int y = -offset; y < size - offset; y++) {
-                    for (int z = -offset; z < size - offset; z++) {
-                        BlockPos currentPos = targetPos.add(x, y, z);
-                        BlockState state = world.getBlockState(currentPos);
-
-                        if (state.isAir() || state.getBlock().getHardness() < 0) {
-                            continue;
-                        }
-
-                        world.setBlockState(currentPos, Blocks.AIR.getDefaultState(), Block.NOTIFY_ALL);
-                        vanishedAny = true;
-                    }
+        else if (world instanceof ServerWorld serverWorld) {
+            // For levels 1-5, immediate removal (original behavior), written as one batch
+            SectionBatchWriter writer = new SectionBatchWriter(serverWorld);
+            SpellShapes.Shape cube = SpellShapes.cube(size);
+            BlockPos.Mutable currentPos = new BlockPos.Mutable();
+            for (int i = 0; i < cube.size(); i++) {
+                cube.getPos(i, targetPos, currentPos);
+                BlockState state = world.getBlockState(currentPos);
+
+                if (state.isAir() || state.getBlock().getHardness() < 0) {
+                    continue;
                 }
+
+                writer.set(currentPos, Blocks.AIR.getDefaultState());
+                vanishedAny = true;
             }
+            writer.flush();
         }
 
         return vanishedAny;
     };
 
     // Helper method to spawn dramatic particle buildup for high-level spells
-    private static void spawnParticleBuildup(ServerWorld world, PlayerEntity user, BlockPos targetPos, int size, int offset) {
+    private static void spawnParticleBuildup(ServerWorld world, PlayerEntity user, BlockPos targetPos, int size, int offset, int level) {
         Vec3d userPos = user.getEyePos();
         int particleCount = size * 10; // Scale particle count with spell size
 
@@ -234,7 +320,7 @@ public final class SpellEffects {
                     world.random.nextDouble() * 2 - 1
             );
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ENCHANT,
                     particlePos.x, particlePos.y, particlePos.z,
                     1, // count
@@ -243,48 +329,11 @@ public final class SpellEffects {
             );
         }
 
-        // Also spawn particles forming the outline of the cube
-        spawnCubeOutline(world, targetPos, size, offset);
+        // Also spawn particles forming the outline of the cube (built by the client when it has the mod)
+        SpellFx.effect(world, SpellFxType.VANISH_OUTLINE,
+                targetPos.getX(), targetPos.getY(), targetPos.getZ(), size, level);
     }
 
-    // Helper method to spawn particles forming the outline of the cube
-    private static void spawnCubeOutline(ServerWorld world, BlockPos center, int size, int offset) {
-        BlockPos start = center.add(-offset, -offset, -offset);
-        BlockPos end = center.add(size - offset - 1, size - offset - 1, size - offset - 1);
-
-        // Spawn particles along the edges of the cube
-        for (int i = 0; i < size; i++) {
-            // Bottom face edges
-            spawnParticleAt(world, start.getX() + i, start.getY(), start.getZ());
-            spawnParticleAt(world, start.getX() + i, start.getY(), end.getZ());
-            spawnParticleAt(world, start.getX(), start.getY(), start.getZ() + i);
-            spawnParticleAt(world, end.getX(), start.getY(), start.getZ() + i);
-
-            // Top face edges
-            spawnParticleAt(world, start.getX() + i, end.getY(), start.getZ());
-            spawnParticleAt(world, start.getX() + i, end.getY(), end.getZ());
-            spawnParticleAt(world, start.getX(), end.getY(), start.getZ() + i);
-            spawnParticleAt(world, end.getX(), end.getY(), start.getZ() + i);
-
-            // Vertical edges
-            spawnParticleAt(world, start.getX(), start.getY() + i, start.getZ());
-            spawnParticleAt(world, end.getX(), start.getY() + i, start.getZ());
-            spawnParticleAt(world, start.getX(), start.getY() + i, end.getZ());
-            spawnParticleAt(world, end.getX(), start.getY() + i, end.getZ());
-        }
-    }
-
-    private static void spawnParticleAt(ServerWorld world, double x, double y, double z) {
-        world.spawnParticles(
-                ParticleTypes.ENCHANT,
-                x + 0.5, y + 0.5, z + 0.5,
-                1, // count
-                0, 0, 0, // no spread
-                0 // no motion
-        );
-    }
-
-
 
     // RETRIBUTION Effect - Punishes the next attacker with multiplied damage
     public static final SpellEffect RETRIBUTION = (world, user, hand, stack, hit) -> {
@@ -305,7 +354,7 @@ public final class SpellEffects {
                     0.5f, 0.8f + (level * 0.1f));
 
             // Spawn subtle particles around the player
-            serverWorld.spawnParticles(
+            SpellFx.particles(serverWorld,
                     ParticleTypes.ENCHANT,
                     user.getX(),
                     user.getY() + 1.0,
@@ -323,26 +372,26 @@ public final class SpellEffects {
 
     // Helper method to apply retribution effect to the player
     private static void applyRetributionEffect(PlayerEntity player, int level) {
-        // We'll use a custom data component to track retribution
-        // For now, we'll use a simple approach with a static map (in a real implementation, you'd want persistent storage)
         RetributionManager.setRetribution(player, level);
     }
 
     // Custom manager class to handle retribution effects
     public static class RetributionManager {
-        // Simple in-memory storage (would need persistence in a real implementation)
-        private static final Map<UUID, RetributionData> activeRetributions = new HashMap<>();
+        // An unused retribution fades after 30 seconds, plus 10 seconds per level
+        private static final int BASE_DURATION = 30 * 20;
+        private static final int DURATION_PER_LEVEL = 10 * 20;
 
         public static void setRetribution(PlayerEntity player, int level) {
-            activeRetributions.put(player.getUuid(), new RetributionData(level, player.getWorld().getTime()));
+            SpellStates.RETRIBUTION.put(player, new RetributionData(level, player.getWorld().getTime()),
+                    BASE_DURATION + level * DURATION_PER_LEVEL);
         }
 
         public static RetributionData getRetribution(PlayerEntity player) {
-            return activeRetributions.get(player.getUuid());
+            return SpellStates.RETRIBUTION.get(player);
         }
 
         public static void removeRetribution(PlayerEntity player) {
-            activeRetributions.remove(player.getUuid());
+            SpellStates.RETRIBUTION.remove(player);
         }
 
         // Call this when a player is attacked
@@ -382,7 +431,7 @@ public final class SpellEffects {
             int particleCount = 10 + (level * 5); // More particles for higher levels
 
             for (int i = 0; i < particleCount; i++) {
-                world.spawnParticles(
+                SpellFx.particles(world,
                         ParticleTypes.CRIT,
                         target.getX() + (world.random.nextDouble() - 0.5) * target.getWidth(),
                         target.getY() + world.random.nextDouble() * target.getHeight(),
@@ -394,7 +443,7 @@ public final class SpellEffects {
 
                 // Add magic particles for higher levels
                 if (level >= 3) {
-                    world.spawnParticles(
+                    SpellFx.particles(world,
                             ParticleTypes.ENCHANT,
                             target.getX() + (world.random.nextDouble() - 0.5) * target.getWidth(),
                             target.getY() + world.random.nextDouble() * target.getHeight(),
@@ -410,6 +459,11 @@ public final class SpellEffects {
 
     // Data class to store retribution information
     public static class RetributionData {
+        public static final Codec<RetributionData> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                Codec.INT.fieldOf("level").forGetter(data -> data.level),
+                Codec.LONG.fieldOf("activation_time").forGetter(data -> data.activationTime)
+        ).apply(instance, RetributionData::new));
+
         public final int level;
         public final long activationTime;
 
@@ -424,152 +478,14 @@ public final class SpellEffects {
         if (world.isClient()) return false;
 
         int level = getSpellLevel(stack);
-        int slownessDuration = (3 + level) * 20; // In ticks (3 seconds + 1s per level)
-        float damage = 4.0f + (level * 2.0f);
-        double speed = 2.0 + (level * 0.5);
+        double speed = 2.0 + (level * 0.5); // Blocks per tick
         double maxDistance = 50.0 + (level * 10.0);
 
         if (world instanceof ServerWorld serverWorld) {
-            Vec3d startPos = user.getEyePos();
-            Vec3d direction = user.getRotationVec(1.0f).normalize();
-
-            // Create a simple projectile by raycasting with steps
-            for (double distance = 0; distance <= maxDistance; distance += 1.0) {
-                Vec3d currentPos = startPos.add(direction.multiply(distance));
-
-                // Spawn ice/snow particles along the path
-                serverWorld.spawnParticles(
-                        ParticleTypes.SNOWFLAKE,
-                        currentPos.x, currentPos.y, currentPos.z,
-                        2, // Fewer particles for performance
-                        0.1, 0.1, 0.1, // Small spread
-                        0.01 // Speed
-                );
-
-                // Add ice particles for higher levels
-                if (level >= 3) {
-                    serverWorld.spawnParticles(
-                            ParticleTypes.ITEM_SNOWBALL,
-                            currentPos.x, currentPos.y, currentPos.z,
-                            1,
-                            0.05, 0.05, 0.05,
-                            0.005
-                    );
-                }
-
-                // Check for entity collision at this point
-                Box collisionBox = new Box(currentPos, currentPos).expand(0.5);
-                List<LivingEntity> entities = world.getEntitiesByClass(
-                        LivingEntity.class,
-                        collisionBox,
-                        entity -> entity != user && entity.isAlive()
-                );
-
-                if (!entities.isEmpty()) {
-                    // Hit an entity!
-                    LivingEntity target = entities.get(0);
-
-                    // Apply damage and slowness (freeze effect)
-                    if (target.damage(serverWorld, user.getDamageSources().magic(), damage)) {
-                        // Apply slowness as our "freeze" effect
-                        target.addStatusEffect(new StatusEffectInstance(
-                                StatusEffects.SLOWNESS,
-                                slownessDuration,
-                                Math.min(level - 1, 3), // Higher levels = stronger slowness (up to Slowness IV)
-                                false, true
-                        ));
-
-                        // Apply mining fatigue to simulate freezing (reduces attack speed)
-                        if (level >= 2) {
-                            target.addStatusEffect(new StatusEffectInstance(
-                                    StatusEffects.MINING_FATIGUE,
-                                    slownessDuration,
-                                    Math.min(level - 2, 2), // Scales with level
-                                    false, true
-                            ));
-                        }
-
-                        // For very high levels, apply weakness too
-                        if (level >= 4) {
-                            target.addStatusEffect(new StatusEffectInstance(
-                                    StatusEffects.WEAKNESS,
-                                    slownessDuration / 2, // Shorter duration
-                                    Math.min(level - 4, 1),
-                                    false, true
-                            ));
-                        }
-
-                        // Small knockback (less than fire bolt for ice theme)
-                        Vec3d knockback = direction.multiply(0.2);
-                        target.addVelocity(knockback.x, 0.05, knockback.z);
-                        target.velocityModified = true;
-                    }
-
-                    // Impact effect - ice explosion
-                    serverWorld.spawnParticles(
-                            ParticleTypes.SNOWFLAKE,
-                            currentPos.x, currentPos.y, currentPos.z,
-                            15 + (level * 5),
-                            0.5, 0.5, 0.5,
-                            0.1
-                    );
-
-                    // Ice shard particles for impact
-                    serverWorld.spawnParticles(
-                            ParticleTypes.ITEM_SNOWBALL,
-                            currentPos.x, currentPos.y, currentPos.z,
-                            10 + (level * 3),
-                            0.3, 0.3, 0.3,
-                            0.05
-                    );
-
-                    // Sound - ice breaking
-                    world.playSound(
-                            null,
-                            BlockPos.ofFloored(currentPos),
-                            SoundEvents.BLOCK_GLASS_BREAK,
-                            SoundCategory.HOSTILE,
-                            0.8f, 1.2f + (level * 0.1f)
-                    );
-
-                    break; // Stop after hitting something
-                }
-
-                // Stop if we hit a block
-                BlockPos blockPos = BlockPos.ofFloored(currentPos);
-                if (!world.getBlockState(blockPos).isAir()) {
-                    // Block impact effect - create frost on the block
-                    serverWorld.spawnParticles(
-                            ParticleTypes.SNOWFLAKE,
-                            currentPos.x, currentPos.y, currentPos.z,
-                            10 + (level * 3),
-                            0.3, 0.3, 0.3,
-                            0.05
-                    );
-
-                    // Try to place frost/snow on the block if it's a solid surface
-                    Direction hitFace = getHitFace(direction);
-                    BlockPos surfacePos = blockPos.offset(hitFace);
-
-                    if (world.getBlockState(surfacePos).isAir()) {
-                        // Place snow or frost walker ice based on level
-                        if (level >= 3) {
-                            world.setBlockState(surfacePos, Blocks.FROSTED_ICE.getDefaultState());
-                        } else {
-                            world.setBlockState(surfacePos, Blocks.SNOW.getDefaultState());
-                        }
-                    }
-
-                    break;
-                }
-
-                // Small delay between steps to make it feel like a projectile
-                try {
-                    Thread.sleep(5); // 5ms delay - makes it visible as moving
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
+            // The spear flies on its own, one step per tick; damage and frost happen on impact
+            IceSpearEntity spear = new IceSpearEntity(ModEntities.ICE_SPEAR, serverWorld);
+            spear.launch(user, level, speed, maxDistance);
+            serverWorld.spawnEntity(spear);
 
             // Launch sound - ice magic
             world.playSound(
@@ -587,74 +503,33 @@ public final class SpellEffects {
         return false;
     };
 
-    // Helper method to determine which face of the block was hit ice
-    private static Direction getHitFace(Vec3d direction) {
-        // Simple approximation - use the dominant direction component
-        double absX = Math.abs(direction.x);
-        double absY = Math.abs(direction.y);
-        double absZ = Math.abs(direction.z);
-
-        if (absX > absY && absX > absZ) {
-            return direction.x > 0 ? Direction.EAST : Direction.WEST;
-        } else if (absY > absX && absY > absZ) {
-            return direction.y > 0 ? Direction.UP : Direction.DOWN;
-        } else {
-            return direction.z > 0 ? Direction.SOUTH : Direction.NORTH;
-        }
-    }
-
     // Create a Fire Wave Effect with level scaling
     public static final SpellEffect FIRE_WAVE = (world, user, hand, stack, hit) -> {
         if (world.isClient) return false;
 
         int level = getSpellLevel(stack);
-        int maxRadius = 4 + (level - 1) * 2; // Level 1: 4, Level 2: 6, Level 3: 8, etc.
+        int maxRadius = fireWaveRadius(level);
 
         BlockPos playerPos = user.getBlockPos();
         ServerWorld serverWorld = (ServerWorld) world;
 
         // Create the expanding wave effect
-        for (int radius = 1; radius <= maxRadius; radius++) {
+        // The first ring goes out right away, every next ring 2 ticks later
+        createFireRing(serverWorld, playerPos, 1, user, level);
+        for (int radius = 2; radius <= maxRadius; radius++) {
             final int currentRadius = radius;
-
-            // Schedule each ring with a delay to create the wave effect
-            serverWorld.getServer().execute(() -> {
-                createFireRing(serverWorld, playerPos, currentRadius, user, level);
-            });
-
-            // Add delay between rings for wave effect (2 ticks per ring)
-            try {
-                Thread.sleep(40); // 40ms = 2 ticks
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+            SpellScheduler.schedule(serverWorld, user, (radius - 1) * 2, () ->
+                    createFireRing(serverWorld, playerPos, currentRadius, user, level));
         }
 
-        // For level 3+, create a second wave after a delay
+        // For level 3+, create a second wave 1 second (20 ticks) after the first one finished
         if (level >= 3) {
-            serverWorld.getServer().execute(() -> {
-                try {
-                    Thread.sleep(1000); // 1 second delay for second wave
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
-                for (int radius = 1; radius <= maxRadius; radius++) {
-                    final int currentRadius = radius;
-                    serverWorld.getServer().execute(() -> {
-                        createFireRing(serverWorld, playerPos, currentRadius, user, level);
-                    });
-
-                    try {
-                        Thread.sleep(40);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            });
+            int secondWaveStart = (maxRadius - 1) * 2 + 20;
+            for (int radius = 1; radius <= maxRadius; radius++) {
+                final int currentRadius = radius;
+                SpellScheduler.schedule(serverWorld, user, secondWaveStart + (radius - 1) * 2, () ->
+                        createFireRing(serverWorld, playerPos, currentRadius, user, level));
+            }
         }
 
         return true;
@@ -663,50 +538,48 @@ public final class SpellEffects {
     // Helper method to create a ring of fire at specific radius
     private static void createFireRing(ServerWorld world, BlockPos center, int radius, PlayerEntity player, int level) {
         DamageSource damageSource = createPlayerAttackSource(world, player);
-
-        // Calculate all positions in the ring
-        for (int x = -radius; x <= radius; x++) {
-            for (int z = -radius; z <= radius; z++) {
-                // Only process blocks exactly at the current radius (circle pattern)
-                double distance = Math.sqrt(x*x + z*z);
-                if (Math.abs(distance - radius) > 0.5) continue;
-
-                BlockPos targetPos = center.add(x, 0, z);
-
-                // Check if block is flammable and ignite it
-                BlockState state = world.getBlockState(targetPos);
-                if (isFlammable(state)) {
-                    // Try to place fire on top of flammable blocks
-                    BlockPos firePos = targetPos.up();
-                    if (world.getBlockState(firePos).isAir()) {
-                        world.setBlockState(firePos, Blocks.FIRE.getDefaultState());
-                    }
+        SectionBatchWriter writer = new SectionBatchWriter(world);
+
+        // All blocks exactly at the current radius (circle pattern)
+        SpellShapes.Shape ring = SpellShapes.ring(radius);
+        BlockPos.Mutable targetPos = new BlockPos.Mutable();
+        for (int i = 0; i < ring.size(); i++) {
+            ring.getPos(i, center, targetPos);
+
+            // Check if block is flammable and ignite it
+            BlockState state = world.getBlockState(targetPos);
+            if (isFlammable(state)) {
+                // Try to place fire on top of flammable blocks
+                BlockPos firePos = targetPos.up();
+                if (world.getBlockState(firePos).isAir()) {
+                    writer.set(firePos, Blocks.FIRE.getDefaultState());
                 }
+            }
 
-                // Set entities on fire
-                Box damageBox = new Box(
-                        targetPos.getX() - 0.5, targetPos.getY(), targetPos.getZ() - 0.5,
-                        targetPos.getX() + 1.5, targetPos.getY() + 2, targetPos.getZ() + 1.5
-                );
+            // Spawn particles for visual effect
+            SpellFx.particles(world, ParticleTypes.FLAME,
+                    targetPos.getX() + 0.5, targetPos.getY() + 1, targetPos.getZ() + 0.5,
+                    3, 0.2, 0.5, 0.2, 0.05);
 
-                List<Entity> entities = world.getEntitiesByClass(Entity.class, damageBox,
-                        entity -> entity != player && entity.isAlive());
+            SpellFx.particles(world, ParticleTypes.SMOKE,
+                    targetPos.getX() + 0.5, targetPos.getY() + 1, targetPos.getZ() + 0.5,
+                    2, 0.3, 0.3, 0.3, 0.02);
+        }
 
-                for (Entity entity : entities) {
-                    entity.setFireTicks(80); // 4 seconds (20 ticks/second)
-                    if (entity instanceof LivingEntity livingEntity) {
-                        livingEntity.damage(world, damageSource, 2.0f * level);
-                    }
-                }
+        writer.flush();
 
-                // Spawn particles for visual effect
-                world.spawnParticles(ParticleTypes.FLAME,
-                        targetPos.getX() + 0.5, targetPos.getY() + 1, targetPos.getZ() + 0.5,
-                        3, 0.2, 0.5, 0.2, 0.05);
+        // Set entities on fire: one query around the whole ring, then keep whoever touches a ring block.
+        // Each ring block reaches half a block out to the sides and two blocks up.
+        Box damageArea = ring.getBounds(center).expand(0.5, 0, 0.5).stretch(0, 1, 0);
+        SpellProfiler.countEntityQuery();
+        List<Entity> entities = world.getEntitiesByClass(Entity.class, damageArea,
+                entity -> entity != player && entity.isAlive()
+                        && ring.overlapsColumns(entity.getBoundingBox().expand(0.5, 0, 0.5), center));
 
-                world.spawnParticles(ParticleTypes.SMOKE,
-                        targetPos.getX() + 0.5, targetPos.getY() + 1, targetPos.getZ() + 0.5,
-                        2, 0.3, 0.3, 0.3, 0.02);
+        for (Entity entity : entities) {
+            entity.setFireTicks(80); // 4 seconds (20 ticks/second)
+            if (entity instanceof LivingEntity livingEntity) {
+                livingEntity.damage(world, damageSource, 2.0f * level);
             }
         }
     }
@@ -725,95 +598,19 @@ public final class SpellEffects {
                 state.isIn(BlockTags.WOOL_CARPETS);
     }
 
-    // FIRE_BOLT Effect - Simple custom projectile with flame trail
+    // FIRE_BOLT Effect - Custom projectile with flame trail
     public static final SpellEffect FIRE_BOLT = (world, user, hand, stack, hit) -> {
         if (world.isClient()) return false;
 
         int level = getSpellLevel(stack);
-        int fireDuration = (3 + level) * 20; // In ticks
-        float damage = 4.0f + (level * 2.0f);
-        double speed = 2.0 + (level * 0.5);
+        double speed = 2.0 + (level * 0.5); // Blocks per tick
         double maxDistance = 50.0 + (level * 10.0);
 
         if (world instanceof ServerWorld serverWorld) {
-            Vec3d startPos = user.getEyePos();
-            Vec3d direction = user.getRotationVec(1.0f).normalize();
-
-            // Create a simple projectile by raycasting with steps
-            for (double distance = 0; distance <= maxDistance; distance += 1.0) {
-                Vec3d currentPos = startPos.add(direction.multiply(distance));
-
-                // Spawn flame particles along the path
-                serverWorld.spawnParticles(
-                        ParticleTypes.FLAME,
-                        currentPos.x, currentPos.y, currentPos.z,
-                        2, // Fewer particles for performance
-                        0.1, 0.1, 0.1, // Small spread
-                        0.01 // Speed
-                );
-
-                // Check for entity collision at this point
-                Box collisionBox = new Box(currentPos, currentPos).expand(0.5);
-                List<LivingEntity> entities = world.getEntitiesByClass(
-                        LivingEntity.class,
-                        collisionBox,
-                        entity -> entity != user && entity.isAlive()
-                );
-
-                if (!entities.isEmpty()) {
-                    // Hit an entity!
-                    LivingEntity target = entities.get(0);
-
-                    // Apply damage and fire
-                    if (target.damage(serverWorld, user.getDamageSources().magic(), damage)) {
-                        target.setOnFireFor(fireDuration);
-
-                        // Small knockback
-                        Vec3d knockback = direction.multiply(0.3);
-                        target.addVelocity(knockback.x, 0.1, knockback.z);
-                    }
-
-                    // Impact effect
-                    serverWorld.spawnParticles(
-                            ParticleTypes.FLAME,
-                            currentPos.x, currentPos.y, currentPos.z,
-                            15 + (level * 5),
-                            0.5, 0.5, 0.5,
-                            0.1
-                    );
-
-                    // Sound
-                    world.playSound(
-                            null,
-                            BlockPos.ofFloored(currentPos),
-                            SoundEvents.ENTITY_BLAZE_HURT,
-                            SoundCategory.HOSTILE,
-                            0.8f, 1.0f
-                    );
-
-                    break; // Stop after hitting something
-                }
-
-                // Stop if we hit a block
-                if (!world.getBlockState(BlockPos.ofFloored(currentPos)).isAir()) {
-                    // Block impact effect
-                    serverWorld.spawnParticles(
-                            ParticleTypes.FLAME,
-                            currentPos.x, currentPos.y, currentPos.z,
-                            10 + (level * 3),
-                            0.3, 0.3, 0.3,
-                            0.05
-                    );
-                    break;
-                }
-
-                // Small delay between steps to make it feel like a projectile
-                try {
-                    Thread.sleep(5); // 5ms delay - makes it visible as moving
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
+            // The bolt flies on its own, one step per tick; damage and fire happen on impact
+            FireBoltEntity bolt = new FireBoltEntity(ModEntities.FIRE_BOLT, serverWorld);
+            bolt.launch(user, level, speed, maxDistance);
+            serverWorld.spawnEntity(bolt);
 
             // Launch sound
             world.playSound(
@@ -849,6 +646,7 @@ public final class SpellEffects {
         Vec3d end = start.add(lookVec.multiply(range));
 
         Box hitBox = new Box(start, end).expand(scaleFactor);
+        SpellProfiler.countEntityQuery();
         List<Entity> targets = world.getOtherEntities(user, hitBox);
 
         // Find the closest valid target in front of the player
@@ -881,7 +679,7 @@ public final class SpellEffects {
             }
 
             // Spawn fire particles around the target
-            serverWorld.spawnParticles(
+            SpellFx.particles(serverWorld,
                     ParticleTypes.FLAME,
                     closest.getX(),
                     closest.getBodyY(0.5),
@@ -892,7 +690,7 @@ public final class SpellEffects {
             );
 
             // Spawn smoke particles for a cursed fire effect
-            serverWorld.spawnParticles(
+            SpellFx.particles(serverWorld,
                     ParticleTypes.SMOKE,
                     closest.getX(),
                     closest.getBodyY(0.5),
@@ -904,7 +702,7 @@ public final class SpellEffects {
 
             // For high levels, add soul fire particles for a cursed look
             if (level >= 4) {
-                serverWorld.spawnParticles(
+                SpellFx.particles(serverWorld,
                         ParticleTypes.SOUL_FIRE_FLAME,
                         closest.getX(),
                         closest.getBodyY(0.5),
@@ -937,6 +735,7 @@ public final class SpellEffects {
         Vec3d end = start.add(lookVec.multiply(range));
 
         Box hitBox = new Box(start, end).expand(scaleFactor);
+        SpellProfiler.countEntityQuery();
         List<Entity> targets = world.getOtherEntities(user, hitBox);
 
         // Find the closest valid target in front of the player
@@ -961,7 +760,7 @@ public final class SpellEffects {
             closest.damage(serverWorld, src, damage);
 
             // Spawn particles based on level
-            serverWorld.spawnParticles(
+            SpellFx.particles(serverWorld,
                     ParticleTypes.SWEEP_ATTACK,
                     closest.getX(),
                     closest.getBodyY(0.5),
@@ -987,29 +786,24 @@ public final class SpellEffects {
 
         int level = getSpellLevel(stack);
 
-        // Scaling system for radius and damage
-        int radius;
+        // Scaling system for damage (radius: see novaRadius)
+        int radius = novaRadius(level);
         float damage;
         switch (level) {
             case 1:
-                radius = 6;
                 damage = 6.0f; // 3 hearts
                 break;
             case 2:
-                radius = 9;
                 damage = 10.0f; // 5 hearts
                 break;
             case 3:
-                radius = 12;
                 damage = 14.0f; // 7 hearts
                 break;
             case 4:
-                radius = 15;
                 damage = 20.0f; // 10 hearts (one-shot basic undead)
                 break;
             default:
                 // Continue scaling beyond level 4
-                radius = 15 + (level - 4) * 5;
                 damage = 20.0f + (level - 4) * 5.0f;
         }
 
@@ -1024,14 +818,7 @@ public final class SpellEffects {
                     0.5f, 0.8f);
 
             // Schedule the nova burst after 1 second (20 ticks)
-            serverWorld.getServer().execute(() -> {
-                try {
-                    Thread.sleep(1000); // 1 second delay
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
+            SpellScheduler.schedule(serverWorld, user, 20, () -> {
                 // Phase 2: Nova burst
                 executeNovaBurst(serverWorld, user, radius, damage, level);
             });
@@ -1054,7 +841,7 @@ public final class SpellEffects {
             double y = user.getY() + 1.0 + world.random.nextDouble() * 2.0;
 
             // Golden particles slowly rising
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ELECTRIC_SPARK, // Golden sparkle effect
                     x, y, z,
                     1, // count
@@ -1077,11 +864,8 @@ public final class SpellEffects {
                 SoundCategory.PLAYERS,
                 0.7f, 1.2f);
 
-        // Burst of golden light particles
-        spawnNovaBurstParticles(world, user, radius);
-
-        // Shockwave particles
-        spawnShockwaveParticles(world, user, radius);
+        // Burst of golden light particles and the shockwave, as one described effect
+        SpellFx.effect(world, SpellFxType.NOVA_BURST, user.getX(), user.getY(), user.getZ(), radius, level);
 
         // Damage undead mobs in the area
         Box novaArea = new Box(
@@ -1089,6 +873,7 @@ public final class SpellEffects {
                 user.getX() + radius, user.getY() + 3, user.getZ() + radius
         );
 
+        SpellProfiler.countEntityQuery();
         List<LivingEntity> entities = world.getNonSpectatingEntities(LivingEntity.class, novaArea);
         boolean affectedAny = false;
 
@@ -1156,65 +941,12 @@ public final class SpellEffects {
                 entity.getType() == EntityType.ZOGLIN;
     }
 
-    // Helper method for nova burst particles
-    private static void spawnNovaBurstParticles(ServerWorld world, PlayerEntity user, int radius) {
-        int burstParticles = 50;
-
-        for (int i = 0; i < burstParticles; i++) {
-            double angle = (2 * Math.PI * i) / burstParticles;
-            double x = user.getX() + Math.cos(angle) * radius;
-            double z = user.getZ() + Math.sin(angle) * radius;
-            double y = user.getY() + 1.0;
-
-            world.spawnParticles(
-                    ParticleTypes.ELECTRIC_SPARK,
-                    x, y, z,
-                    3, // count
-                    0.5, 1.0, 0.5, // spread
-                    0.1 // speed
-            );
-
-            // Additional glow effect
-            world.spawnParticles(
-                    ParticleTypes.GLOW,
-                    x, y + 0.5, z,
-                    2, // count
-                    0.3, 0.3, 0.3, // spread
-                    0.05 // speed
-            );
-        }
-    }
-
-    // Helper method for shockwave particles
-    private static void spawnShockwaveParticles(ServerWorld world, PlayerEntity user, int radius) {
-        // Create expanding rings of particles
-        for (int ring = 1; ring <= 3; ring++) {
-            int ringParticles = 20;
-            double ringRadius = radius * (ring / 3.0);
-
-            for (int i = 0; i < ringParticles; i++) {
-                double angle = (2 * Math.PI * i) / ringParticles;
-                double x = user.getX() + Math.cos(angle) * ringRadius;
-                double z = user.getZ() + Math.sin(angle) * ringRadius;
-                double y = user.getY() + 0.5;
-
-                world.spawnParticles(
-                        ParticleTypes.GLOW,
-                        x, y, z,
-                        1, // count
-                        0, 0.1, 0, // spread (mostly upward)
-                        0.2 // speed
-                );
-            }
-        }
-    }
-
     // Helper method to spawn holy particles on damaged undead
     private static void spawnHolyParticlesOnEntity(ServerWorld world, LivingEntity entity) {
         int particleCount = 10;
 
         for (int i = 0; i < particleCount; i++) {
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ELECTRIC_SPARK,
                     entity.getX() + (world.random.nextDouble() - 0.5) * entity.getWidth(),
                     entity.getY() + world.random.nextDouble() * entity.getHeight(),
@@ -1232,29 +964,24 @@ public final class SpellEffects {
 
         int level = getSpellLevel(stack);
 
-        // Scaling system for radius and damage
-        int radius;
+        // Scaling system for damage (radius: see verminRadius)
+        int radius = verminRadius(level);
         float damage;
         switch (level) {
             case 1:
-                radius = 6;
                 damage = 6.0f; // 3 hearts
                 break;
             case 2:
-                radius = 9;
                 damage = 10.0f; // 5 hearts
                 break;
             case 3:
-                radius = 12;
                 damage = 14.0f; // 7 hearts
                 break;
             case 4:
-                radius = 15;
                 damage = 20.0f; // 10 hearts
                 break;
             default:
                 // Continue scaling beyond level 4
-                radius = 15 + (level - 4) * 3;
                 damage = 20.0f + (level - 4) * 5.0f;
         }
 
@@ -1274,14 +1001,7 @@ public final class SpellEffects {
                     0.4f, 0.7f);
 
             // Schedule the burst after 1 second (20 ticks)
-            serverWorld.getServer().execute(() -> {
-                try {
-                    Thread.sleep(1000); // 1 second delay
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
+            SpellScheduler.schedule(serverWorld, user, 20, () -> {
                 // Phase 2: Vermin bane burst
                 executeVerminBurst(serverWorld, user, radius, damage, level);
             });
@@ -1304,7 +1024,7 @@ public final class SpellEffects {
             double y = user.getY() + 1.0 + world.random.nextDouble() * 2.0;
 
             // Dark ash and smoke particles slowly rising
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ASH,
                     x, y, z,
                     2, // count
@@ -1312,7 +1032,7 @@ public final class SpellEffects {
                     0.03 // slow upward motion
             );
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.SMOKE,
                     x, y, z,
                     1, // count
@@ -1340,11 +1060,8 @@ public final class SpellEffects {
                 SoundCategory.PLAYERS,
                 0.5f, 1.5f);
 
-        // Burst of dark energy particles
-        spawnVerminBurstParticles(world, user, radius);
-
-        // Shockwave of black/gray particles
-        spawnVerminShockwave(world, user, radius);
+        // Burst of dark energy particles and the black/gray shockwave, as one described effect
+        SpellFx.effect(world, SpellFxType.VERMIN_BURST, user.getX(), user.getY(), user.getZ(), radius, level);
 
         // Damage arthropod mobs in the area
         Box verminArea = new Box(
@@ -1352,6 +1069,7 @@ public final class SpellEffects {
                 user.getX() + radius, user.getY() + 3, user.getZ() + radius
         );
 
+        SpellProfiler.countEntityQuery();
         List<LivingEntity> entities = world.getNonSpectatingEntities(LivingEntity.class, verminArea);
         boolean affectedAny = false;
 
@@ -1448,67 +1166,13 @@ public final class SpellEffects {
         }
     }
 
-    // Helper method for vermin burst particles
-    private static void spawnVerminBurstParticles(ServerWorld world, PlayerEntity user, int radius) {
-        int burstParticles = 40;
-
-        for (int i = 0; i < burstParticles; i++) {
-            double angle = (2 * Math.PI * i) / burstParticles;
-            double x = user.getX() + Math.cos(angle) * radius;
-            double z = user.getZ() + Math.sin(angle) * radius;
-            double y = user.getY() + 1.0;
-
-            // Black/gray particle burst
-            world.spawnParticles(
-                    ParticleTypes.SMOKE,
-                    x, y, z,
-                    2, // count
-                    0.3, 0.5, 0.3, // spread
-                    0.1 // speed
-            );
-
-            // Ash particles for the dark energy effect
-            world.spawnParticles(
-                    ParticleTypes.ASH,
-                    x, y, z,
-                    1, // count
-                    0.2, 0.3, 0.2, // spread
-                    0.08 // speed
-            );
-        }
-    }
-
-    // Helper method for vermin shockwave
-    private static void spawnVerminShockwave(ServerWorld world, PlayerEntity user, int radius) {
-        // Create expanding rings of dark particles
-        for (int ring = 1; ring <= 3; ring++) {
-            int ringParticles = 15;
-            double ringRadius = radius * (ring / 3.0);
-
-            for (int i = 0; i < ringParticles; i++) {
-                double angle = (2 * Math.PI * i) / ringParticles;
-                double x = user.getX() + Math.cos(angle) * ringRadius;
-                double z = user.getZ() + Math.sin(angle) * ringRadius;
-                double y = user.getY() + 0.5;
-
-                world.spawnParticles(
-                        ParticleTypes.SMOKE,
-                        x, y, z,
-                        2, // count
-                        0, 0.2, 0, // spread (mostly upward)
-                        0.15 // speed
-                );
-            }
-        }
-    }
-
     // Helper method to spawn arthropod death effects
     private static void spawnArthropodDeathEffects(ServerWorld world, LivingEntity entity, int level) {
         int particleCount = 15 + (level * 5);
 
         for (int i = 0; i < particleCount; i++) {
             // Smoke and ash particles where the arthropod dies
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.SMOKE,
                     entity.getX() + (world.random.nextDouble() - 0.5) * entity.getWidth(),
                     entity.getY() + world.random.nextDouble() * entity.getHeight(),
@@ -1518,7 +1182,7 @@ public final class SpellEffects {
                     0.05 // speed
             );
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ASH,
                     entity.getX() + (world.random.nextDouble() - 0.5) * entity.getWidth(),
                     entity.getY() + world.random.nextDouble() * entity.getHeight(),
@@ -1530,7 +1194,7 @@ public final class SpellEffects {
 
             // For high levels, add some soul particles for extra effect
             if (level >= 3) {
-                world.spawnParticles(
+                SpellFx.particles(world,
                         ParticleTypes.SOUL_FIRE_FLAME,
                         entity.getX() + (world.random.nextDouble() - 0.5) * entity.getWidth(),
                         entity.getY() + world.random.nextDouble() * entity.getHeight(),
@@ -1559,29 +1223,26 @@ public final class SpellEffects {
 
         if (world instanceof ServerWorld serverWorld) {
             // Square expands from center out to 9x9
-            int radius = 4; // 9x9 means radius 4 blocks around center
-            for (int x = -radius; x <= radius; x++) {
-                for (int z = -radius; z <= radius; z++) {
-                    BlockPos pos = targetPos.add(x, 0, z);
-                    serverWorld.spawnParticles(
-                            ParticleTypes.ENCHANT,          // enchantment particles
-                            pos.getX() + 0.5,
-                            pos.getY() + 1.0,               // float a bit above ground
-                            pos.getZ() + 0.5,
-                            3,                              // density
-                            0.2, 0.2, 0.2,                  // spread
-                            0.01                            // speed
-                    );
-                }
+            SpellShapes.Shape square = SpellShapes.square(4); // 9x9 means radius 4 blocks around center
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (int i = 0; i < square.size(); i++) {
+                square.getPos(i, targetPos, pos);
+                SpellFx.particles(serverWorld,
+                        ParticleTypes.ENCHANT,          // enchantment particles
+                        pos.getX() + 0.5,
+                        pos.getY() + 1.0,               // float a bit above ground
+                        pos.getZ() + 0.5,
+                        3,                              // density
+                        0.2, 0.2, 0.2,                  // spread
+                        0.01                            // speed
+                );
             }
 
             // Affect entities in area
-            Box area = new Box(
-                    targetPos.getX() - radius, targetPos.getY() - 2, targetPos.getZ() - radius,
-                    targetPos.getX() + radius, targetPos.getY() + 2, targetPos.getZ() + radius
-            );
+            Box area = square.getBounds(targetPos).expand(0, 2, 0);
+            SpellProfiler.countEntityQuery();
             List<Entity> entities = world.getOtherEntities(user, area);
-
+            SpellShapes.Circle circle = SpellShapes.circle(20);
 
             for (Entity e : entities) {
                 if (e instanceof LivingEntity living) {
@@ -1591,11 +1252,10 @@ public final class SpellEffects {
                     )); // 3 sec, amplifier 9
 
                     // Wrap enchantment visuals around target
-                    for (int i = 0; i < 20; i++) {
-                        double angle = (i / 20.0) * Math.PI * 2;
-                        double dx = Math.cos(angle) * 0.8;
-                        double dz = Math.sin(angle) * 0.8;
-                        serverWorld.spawnParticles(
+                    for (int i = 0; i < circle.size(); i++) {
+                        double dx = circle.cos(i) * 0.8;
+                        double dz = circle.sin(i) * 0.8;
+                        SpellFx.particles(serverWorld,
                                 ParticleTypes.ENCHANT,
                                 living.getX() + dx,
                                 living.getBodyY(0.5),
@@ -1624,58 +1284,48 @@ public final class SpellEffects {
             targetPos = user.getBlockPos().offset(user.getHorizontalFacing(), 10);
         }
 
-        // Scaling system for frost area
-        int size;
-        switch (level) {
-            case 1: size = 9; break;
-            case 2: size = 12; break;
-            case 3: size = 18; break;
-            case 4: size = 24; break;
-            case 5: size = 32; break;
-            case 6: size = 52; break;
-            default: size = 52 + (level - 6) * 20; // Continue scaling beyond level 6
-        }
+        int size = frostSize(level);
 
         int radius = size / 2;
         boolean affectedAny = false;
 
         if (world instanceof ServerWorld serverWorld) {
-            // Freeze blocks in the area
-            for (int x = -radius; x <= radius; x++) {
-                for (int z = -radius; z <= radius; z++) {
-                    // Find the topmost solid block at this x,z position
-                    BlockPos surfacePos = findSurfacePosition(world, targetPos.add(x, 0, z));
-                    if (surfacePos != null) {
-                        // Place ice or frost on the surface
-                        BlockPos icePos = surfacePos.up(); // 1 block above surface
-
-                        if (world.getBlockState(icePos).isAir()) {
-                            // Place frost walker ice or regular ice based on level
-                            if (level >= 3) {
-                                world.setBlockState(icePos, Blocks.BLUE_ICE.getDefaultState());
-                            } else if (level >= 2) {
-                                world.setBlockState(icePos, Blocks.PACKED_ICE.getDefaultState());
-                            } else {
-                                world.setBlockState(icePos, Blocks.ICE.getDefaultState());
-                            }
-                            affectedAny = true;
+            // Freeze blocks in the area; all ice goes out as one batch
+            SectionBatchWriter writer = new SectionBatchWriter(serverWorld);
+            SurfaceLocator surface = new SurfaceLocator(serverWorld);
+            SpellShapes.Shape square = SpellShapes.square(radius);
+            for (int i = 0; i < square.size(); i++) {
+                // Find the topmost solid block at this x,z position
+                BlockPos surfacePos = surface.find(targetPos.getX() + square.getX(i), targetPos.getZ() + square.getZ(i));
+                if (surfacePos != null) {
+                    // Place ice or frost on the surface
+                    BlockPos icePos = surfacePos.up(); // 1 block above surface
+
+                    if (world.getBlockState(icePos).isAir()) {
+                        // Place frost walker ice or regular ice based on level
+                        if (level >= 3) {
+                            writer.set(icePos, Blocks.BLUE_ICE.getDefaultState());
+                        } else if (level >= 2) {
+                            writer.set(icePos, Blocks.PACKED_ICE.getDefaultState());
+                        } else {
+                            writer.set(icePos, Blocks.ICE.getDefaultState());
                         }
+                        affectedAny = true;
+                    }
 
-                        // Also freeze water blocks if they exist
-                        if (world.getBlockState(surfacePos).isOf(Blocks.WATER)) {
-                            world.setBlockState(surfacePos, Blocks.ICE.getDefaultState());
-                            affectedAny = true;
-                        }
+                    // Also freeze water blocks if they exist
+                    if (world.getBlockState(surfacePos).isOf(Blocks.WATER)) {
+                        writer.set(surfacePos, Blocks.ICE.getDefaultState());
+                        affectedAny = true;
                     }
                 }
             }
+            writer.flush();
 
             // Apply freezing effects to mobs in the area
-            Box freezeArea = new Box(
-                    targetPos.getX() - radius, targetPos.getY() - 2, targetPos.getZ() - radius,
-                    targetPos.getX() + radius, targetPos.getY() + 3, targetPos.getZ() + radius
-            );
+            Box freezeArea = square.getBounds(targetPos).expand(0, 2, 0);
 
+            SpellProfiler.countEntityQuery();
             List<LivingEntity> entities = world.getNonSpectatingEntities(LivingEntity.class, freezeArea);
             for (LivingEntity entity : entities) {
                 if (entity == user) continue;
@@ -1743,7 +1393,7 @@ public final class SpellEffects {
             double dx = Math.cos(angle) * radius;
             double dz = Math.sin(angle) * radius;
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.SNOWFLAKE,
                     entity.getX() + dx,
                     entity.getY() + 0.5,
@@ -1765,7 +1415,7 @@ public final class SpellEffects {
             double z = center.getZ() + (world.random.nextDouble() - 0.5) * radius * 2;
             double y = center.getY() + snowHeight + world.random.nextDouble() * 5;
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.SNOWFLAKE,
                     x, y, z,
                     3, // count
@@ -1775,18 +1425,6 @@ public final class SpellEffects {
         }
     }
 
-    // Helper method to find surface position (reuse from BIND effect or create simple version)
-    private static BlockPos findSurfacePosition(World world, BlockPos pos) {
-        // Check from build height down to find the first non-air block
-        for (int y = 320; y >= -64; y--) {
-            BlockPos checkPos = new BlockPos(pos.getX(), y, pos.getZ());
-            if (!world.getBlockState(checkPos).isAir()) {
-                return checkPos;
-            }
-        }
-        return null;
-    }
-
     // FEATHER Effect - Grants progressive flight abilities with scaling duration
     public static final SpellEffect FEATHER = (world, user, hand, stack, hit) -> {
         if (world.isClient) return false;
@@ -1895,34 +1533,13 @@ public final class SpellEffects {
 
     // Helper method to grant creative-like flight for levels 5+
     private static void grantCreativeFlight(PlayerEntity player, int durationTicks, int level) {
-        // Store the player's original abilities
-        if (!player.getAbilities().allowFlying) {
-            // Only grant flight if they don't already have it
-            player.getAbilities().allowFlying = true;
-
+        // Only grant flight if they don't already have it; the grant survives logouts and restarts but
+        // never outlives its duration
+        if (player instanceof ServerPlayerEntity serverPlayer) {
             // Scale flight speed based on level
             float baseSpeed = 0.05f; // Default creative flight speed
             float speedMultiplier = (float) Math.pow(2, level - 5); // Double speed each level beyond 5
-            player.getAbilities().setFlySpeed(baseSpeed * speedMultiplier);
-
-            player.sendAbilitiesUpdate();
-
-            // Schedule ability removal after duration
-            player.getServer().execute(() -> {
-                try {
-                    Thread.sleep(durationTicks * 50L); // Convert ticks to milliseconds
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
-                // Only remove flight if we granted it (player might have creative mode now)
-                if (!player.isCreative() && !player.isSpectator()) {
-                    player.getAbilities().allowFlying = false;
-                    player.getAbilities().setFlySpeed(0.05f); // Reset to default
-                    player.sendAbilitiesUpdate();
-                }
-            });
+            TemporaryFlight.grant(serverPlayer, durationTicks, baseSpeed * speedMultiplier);
         }
 
         // Also apply slow falling for safety
@@ -1945,7 +1562,7 @@ public final class SpellEffects {
             double dz = Math.sin(angle) * radius;
 
             // Spawn particles in a circle around the player
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.CLOUD,
                     player.getX() + dx,
                     player.getY() + 1.0,
@@ -1957,7 +1574,7 @@ public final class SpellEffects {
 
             // Add some upward-moving particles for levels 3+
             if (level >= 3) {
-                world.spawnParticles(
+                SpellFx.particles(world,
                         ParticleTypes.END_ROD,
                         player.getX() + (world.random.nextDouble() - 0.5) * radius,
                         player.getY() + world.random.nextDouble() * 2,
@@ -2017,6 +1634,7 @@ public final class SpellEffects {
             Vec3d end = start.add(lookVec.multiply(range));
 
             Box hitBox = new Box(start, end).expand(1.0);
+            SpellProfiler.countEntityQuery();
             List<Entity> targets = world.getOtherEntities(user, hitBox);
 
             // Find the closest valid target in front of the player
@@ -2084,7 +1702,7 @@ public final class SpellEffects {
 
                 // Track the entity for death effects if needed
                 if (level >= 3) {
-                    NecroticDeathTracker.trackEntity(closest, level);
+                    NecroticDeathTracker.trackEntity(closest, level, witherDuration);
                 }
 
                 // Spawn necrotic particles
@@ -2131,7 +1749,7 @@ public final class SpellEffects {
         int particleCount = 15 + (level * 5);
 
         for (int i = 0; i < particleCount; i++) {
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.SMOKE,
                     target.getX() + (world.random.nextDouble() - 0.5) * target.getWidth(),
                     target.getY() + world.random.nextDouble() * target.getHeight(),
@@ -2141,7 +1759,7 @@ public final class SpellEffects {
                     0.03 // speed
             );
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ASH,
                     target.getX() + (world.random.nextDouble() - 0.5) * target.getWidth(),
                     target.getY() + world.random.nextDouble() * target.getHeight(),
@@ -2153,7 +1771,7 @@ public final class SpellEffects {
 
             // Wither skull particles for higher levels
             if (level >= 2) {
-                world.spawnParticles(
+                SpellFx.particles(world,
                         ParticleTypes.SOUL_FIRE_FLAME,
                         target.getX() + (world.random.nextDouble() - 0.5) * target.getWidth(),
                         target.getY() + world.random.nextDouble() * target.getHeight(),
@@ -2171,7 +1789,7 @@ public final class SpellEffects {
         if (world.isClient) return false;
 
         int level = getSpellLevel(stack);
-        int durationTicks = (3 * (int)Math.pow(2, level - 1)) * 20;
+        int durationTicks = doublingDurationTicks(3, level); // 3s, 6s, 12s, ...
 
         // Just use maximum resistance instead - it's simpler and won't break mob AI
         user.addStatusEffect(new StatusEffectInstance(
@@ -2191,8 +1809,7 @@ public final class SpellEffects {
         int level = getSpellLevel(stack);
 
         // Scaling duration: Level 1: 10s, Level 2: 20s, Level 3: 40s, etc.
-        int durationSeconds = 10 * (int)Math.pow(2, level - 1);
-        int durationTicks = durationSeconds * 20;
+        int durationTicks = doublingDurationTicks(10, level);
 
         // Haste level scales with spell level (cap at Haste V)
         int hasteLevel = Math.min(level - 1, 4); // Level 1 = Haste I, Level 2 = Haste II, etc.
@@ -2231,7 +1848,7 @@ public final class SpellEffects {
             double dx = Math.cos(angle) * radius;
             double dz = Math.sin(angle) * radius;
 
-            world.spawnParticles(
+            SpellFx.particles(world,
                     ParticleTypes.ENCHANT,
                     player.getX() + dx,
                     player.getY() + 1.0,
@@ -2243,7 +1860,7 @@ public final class SpellEffects {
 
             // Add some electric spark particles for higher levels
             if (level >= 3) {
-                world.spawnParticles(
+                SpellFx.particles(world,
                         ParticleTypes.ELECTRIC_SPARK,
                         player.getX() + dx * 0.7,
                         player.getY() + 1.2,
@@ -1,8 +1,17 @@
 package empegrail.forgotten_knowledge;
 
+import empegrail.forgotten_knowledge.cast.CastLimiter;
+import empegrail.forgotten_knowledge.cast.CastPolicy;
+import empegrail.forgotten_knowledge.metrics.SpellMetrics;
+import empegrail.forgotten_knowledge.profile.SpellCastEvent;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import empegrail.forgotten_knowledge.replay.CastRecorder;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.text.Text;
@@ -11,6 +20,8 @@ import net.minecraft.util.Hand;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.world.World;
 
+import java.util.Locale;
+
 public class SpellTomeItem extends Item {
     private final SpellEffect effect;
     private final double range;
@@ -27,6 +38,10 @@ public class SpellTomeItem extends Item {
         this.baseXpCost = baseXpCost;
     }
 
+    public SpellEffect getEffect() {
+        return effect;
+    }
+
     @Override
     public boolean hasGlint(ItemStack stack) {
         return true;
@@ -34,37 +49,149 @@ public class SpellTomeItem extends Item {
 
     @Override
     public ActionResult use(World world, PlayerEntity user, Hand hand) {
-        ItemStack stack = user.getStackInHand(hand);
+        if (world.isClient || effect == null) {
+            return ActionResult.PASS;
+        }
 
+        // One cast waiting at a time per player
+        if (SpellGovernor.hasBacklog(user.getUuid())) {
+            user.sendMessage(Text.literal("Still gathering power..."), true);
+            return ActionResult.FAIL;
+        }
+
+        ItemStack stack = user.getStackInHand(hand);
         int level = stack.getOrDefault(ModDataComponents.SPELL_LEVEL, 1);
+
+        // Estimated cost against the configured limits; big casts are cast smaller or refused
+        CastPolicy.Decision decision = CastPolicy.decide(this, effect, level);
+        if (decision.action() == CastPolicy.Action.REJECT) {
+            user.sendMessage(decision.reason(), true);
+            return ActionResult.FAIL;
+        }
+        int castLevel = decision.level();
+
+        if (!canCast(user, stack, castLevel)) {
+            return ActionResult.FAIL;
+        }
+        if (decision.action() == CastPolicy.Action.DOWNGRADE) {
+            user.sendMessage(decision.reason(), false);
+        }
+
+        // Spell work is over its budget for this tick (or the cast is too heavy for what is left of it): the
+        // cast waits for the next turn of this player
+        if (decision.action() == CastPolicy.Action.DEFER || !SpellGovernor.canRunNow(user.getUuid())) {
+            if (decision.action() == CastPolicy.Action.DEFER) {
+                user.sendMessage(decision.reason(), true);
+            }
+            SpellGovernor.defer(user.getUuid(), () -> {
+                // The player may have switched items (or run out of XP) in the meantime
+                ItemStack current = user.getStackInHand(hand);
+                if (!user.isRemoved() && current.isOf(this) && canCast(user, current, castLevel)) {
+                    cast(user.getWorld(), user, hand, current, castLevel);
+                }
+            }, null);
+            return ActionResult.SUCCESS;
+        }
+
+        return SpellGovernor.time(() -> cast(world, user, hand, stack, castLevel)) ? ActionResult.SUCCESS : ActionResult.PASS;
+    }
+
+    // XP and recharge checks, telling the player what is missing
+    private boolean canCast(PlayerEntity user, ItemStack stack, int level) {
         int xpCost = baseXpCost * level;
 
-        if (!world.isClient && effect != null) {
-            if (user.experienceLevel < xpCost) {
-                user.sendMessage(Text.literal("Not enough XP! Need " + xpCost + " levels"), true);
-                return ActionResult.FAIL;
+        if (user.experienceLevel < xpCost) {
+            SpellMetrics.countXpFailure(this);
+            user.sendMessage(Text.literal("Not enough XP! Need " + xpCost + " levels"), true);
+            return false;
+        }
+
+        // Still recharging (the client normally shows this through the item cooldown already)
+        if (user instanceof ServerPlayerEntity player) {
+            int waitTicks = CastLimiter.remainingTicks(player, this, level);
+            if (waitTicks > 0) {
+                user.sendMessage(Text.literal("The tome is recharging... " + formatSeconds(waitTicks) + "s"), true);
+                user.getItemCooldownManager().set(stack, waitTicks);
+                return false;
             }
+        }
+        return true;
+    }
+
+    private boolean cast(World world, PlayerEntity user, Hand hand, ItemStack stack, int level) {
+        int xpCost = baseXpCost * level;
+
+        // A downgraded cast reads its level from a copy; the tome itself keeps its level
+        ItemStack castStack = stack;
+        if (stack.getOrDefault(ModDataComponents.SPELL_LEVEL, 1) != level) {
+            castStack = stack.copy();
+            castStack.set(ModDataComponents.SPELL_LEVEL, level);
+        }
 
-            HitResult hit = user.raycast((float) this.range, 0.0F, false);
-            boolean performed = effect.cast(world, user, hand, stack, hit);
+        HitResult hit = user.raycast((float) this.range, 0.0F, false);
 
-            if (performed) {
-                user.addExperienceLevels(-xpCost);
-                user.swingHand(hand, true);
+        // Logged for replay when a recording is running; also pins down the cast's randomness
+        if (world instanceof ServerWorld serverWorld) {
+            CastRecorder.record(serverWorld, user, hand, this, level, hit);
+        }
 
-                world.playSound(
-                        null,
-                        user.getBlockPos(),
-                        SoundEvents.ENTITY_ILLUSIONER_CAST_SPELL,
-                        SoundCategory.PLAYERS,
-                        1.0F,
-                        1.0F
-                );
+        // Blocks, entity queries and particles caused by the cast (and its later phases) count for this tome
+        SpellProfiler.Stats stats = SpellProfiler.forTome(this);
+        SpellProfiler.Stats previous = SpellProfiler.enter(stats);
+        long blocksBefore = stats.getBlocks();
+        long queriesBefore = stats.getEntityQueries();
+        long particlesBefore = stats.getParticles();
+        // Free when no JFR recording is running: begin/commit are no-ops and the event never escapes
+        SpellCastEvent event = new SpellCastEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean performed = false;
+        try {
+            performed = effect.cast(world, user, hand, castStack, hit);
+        } finally {
+            stats.recordCast(System.nanoTime() - start, performed);
+            SpellProfiler.exit(previous);
 
-                return ActionResult.SUCCESS;
+            event.end();
+            if (event.shouldCommit()) {
+                event.tome = stats.getName();
+                event.level = level;
+                event.caster = user.getGameProfile().getName();
+                event.performed = performed;
+                event.blocks = stats.getBlocks() - blocksBefore;
+                event.entityQueries = stats.getEntityQueries() - queriesBefore;
+                event.particles = stats.getParticles() - particlesBefore;
+                event.commit();
             }
         }
+        if (!performed) {
+            return false;
+        }
+
+        user.addExperienceLevels(-xpCost);
+        SpellMetrics.countCast(this, level);
+        user.swingHand(hand, true);
+
+        // Out of stored casts: show the time until the next one as the item cooldown
+        if (user instanceof ServerPlayerEntity player) {
+            int cooldown = CastLimiter.consume(player, this, level);
+            if (cooldown > 0) {
+                user.getItemCooldownManager().set(stack, cooldown);
+            }
+        }
+
+        world.playSound(
+                null,
+                user.getBlockPos(),
+                SoundEvents.ENTITY_ILLUSIONER_CAST_SPELL,
+                SoundCategory.PLAYERS,
+                1.0F,
+                1.0F
+        );
+        return true;
+    }
 
-        return ActionResult.PASS;
+    private static String formatSeconds(int ticks) {
+        return String.format(Locale.ROOT, "%.1f", ticks / 20.0);
     }
 }
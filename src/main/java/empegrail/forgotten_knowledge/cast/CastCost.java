@@ -0,0 +1,12 @@
+package empegrail.forgotten_knowledge.cast;
+
+/**
+ * Estimated server cost of one cast: blocks visited, volume (in blocks) searched for entities and particles
+ * sent. Estimates are upper bounds from the spell's scaling, not measurements.
+ */
+public record CastCost(long blocks, long entityVolume, long particles) {
+    public static CastCost of(double blocks, double entityVolume, double particles) {
+        // Casting a huge double to long saturates, so absurd levels cannot wrap around to cheap
+        return new CastCost((long) Math.ceil(blocks), (long) Math.ceil(entityVolume), (long) Math.ceil(particles));
+    }
+}
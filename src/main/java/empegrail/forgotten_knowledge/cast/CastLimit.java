@@ -0,0 +1,17 @@
+package empegrail.forgotten_knowledge.cast;
+
+/**
+ * How fast a tome recharges: one cast every baseTicks + ticksPerLevel * (level - 1) ticks, with up to burst
+ * casts stored up.
+ */
+public record CastLimit(int baseTicks, int ticksPerLevel, int burst) {
+    public int intervalTicks(int level) {
+        long ticks = baseTicks + (long) ticksPerLevel * Math.max(0, level - 1);
+        return (int) Math.min(Integer.MAX_VALUE / 2, ticks);
+    }
+
+    @Override
+    public String toString() {
+        return baseTicks + "," + ticksPerLevel + "," + burst;
+    }
+}
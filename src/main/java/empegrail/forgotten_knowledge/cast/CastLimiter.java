@@ -0,0 +1,97 @@
+package empegrail.forgotten_knowledge.cast;
+
+import empegrail.forgotten_knowledge.ModConfig;
+import empegrail.forgotten_knowledge.state.SpellServerState;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server-side cast rate limit: a token bucket per player and tome, sized by {@link ModConfig#castLimit}.
+ *
+ * A bucket is kept as the single server tick at which it will be full again (a tome that was never used,
+ * or rested long enough, is full). Taking a cast pushes that tick back by one recharge interval; a cast is
+ * allowed as long as at least one token is left. Whenever the bucket runs dry, the caller puts the tome on
+ * the vanilla item cooldown for the time until the next token, which is what the client sees.
+ *
+ * The buckets belong to the running server's {@link SpellServerState} and go away when it stops. A player
+ * who logs out keeps the buckets that are still refilling, so relogging does not refill them.
+ *
+ * NOTE: Call CastLimiter.register() once from the mod initializer.
+ */
+public final class CastLimiter {
+    private CastLimiter() {}
+
+    public static void register() {
+        // Only full buckets can be forgotten; a missing bucket counts as full
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) ->
+                SpellServerState.of(server).getCastLimits().prune(server.getTicks()));
+    }
+
+    /**
+     * Ticks until the player may cast this tome at this level; 0 if a cast is available now.
+     */
+    public static int remainingTicks(ServerPlayerEntity player, Item tome, int level) {
+        Reference2LongOpenHashMap<Item> buckets = bucketsOf(player).get(player.getUuid());
+        if (buckets == null) return 0;
+
+        CastLimit limit = limitOf(tome);
+        long interval = limit.intervalTicks(level);
+        long wait = buckets.getLong(tome) - now(player) - (limit.burst() - 1) * interval;
+        return (int) Math.max(0, wait);
+    }
+
+    /**
+     * Take one cast from the player's bucket for this tome.
+     *
+     * @return ticks until the next cast is available, 0 if the bucket still has some left
+     */
+    public static int consume(ServerPlayerEntity player, Item tome, int level) {
+        Reference2LongOpenHashMap<Item> buckets = bucketsOf(player).computeIfAbsent(player.getUuid(),
+                uuid -> new Reference2LongOpenHashMap<>());
+
+        CastLimit limit = limitOf(tome);
+        long interval = limit.intervalTicks(level);
+        long now = now(player);
+
+        // An idle bucket refills completely, but never beyond full
+        long fullAt = Math.max(buckets.getLong(tome), now) + interval;
+        buckets.put(tome, fullAt);
+
+        return (int) Math.max(0, fullAt - now - (limit.burst() - 1) * interval);
+    }
+
+    private static Map<UUID, Reference2LongOpenHashMap<Item>> bucketsOf(ServerPlayerEntity player) {
+        return SpellServerState.of(((ServerWorld) player.getWorld()).getServer()).getCastLimits().buckets;
+    }
+
+    private static CastLimit limitOf(Item tome) {
+        return ModConfig.castLimit(Registries.ITEM.getId(tome).getPath());
+    }
+
+    private static long now(ServerPlayerEntity player) {
+        return ((ServerWorld) player.getWorld()).getServer().getTicks();
+    }
+
+    /**
+     * Cast buckets of one server. Lives in its {@link SpellServerState}.
+     */
+    public static final class State {
+        // Per player: tome -> server tick at which its bucket is full again
+        private final Map<UUID, Reference2LongOpenHashMap<Item>> buckets = new HashMap<>();
+
+        void prune(long now) {
+            buckets.values().removeIf(tomes -> {
+                tomes.reference2LongEntrySet().removeIf(bucket -> bucket.getLongValue() <= now);
+                return tomes.isEmpty();
+            });
+        }
+    }
+}
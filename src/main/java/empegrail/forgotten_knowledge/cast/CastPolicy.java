@@ -0,0 +1,81 @@
+package empegrail.forgotten_knowledge.cast;
+
+import empegrail.forgotten_knowledge.ModConfig;
+import empegrail.forgotten_knowledge.SpellEffect;
+import empegrail.forgotten_knowledge.SpellEffects;
+import empegrail.forgotten_knowledge.profile.LogHistogram;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import net.minecraft.item.Item;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Admission control for casts, based on {@link SpellEffects#estimateCost}.
+ *
+ * Casts within the configured limits go ahead, unless they would need more of this tick's spell work budget
+ * than is left, in which case they wait for the next tick. How long a cast takes is not something the cost
+ * estimate can tell, so that check uses the median cast time the {@link SpellProfiler} measured for the
+ * tome (within a factor of two; casts of a tome nobody has cast yet always go ahead). Casts over a limit are
+ * cast at the highest level that fits (or refused, if cast.downgradeOverLimit is off or no level fits). The
+ * player is told why.
+ */
+public final class CastPolicy {
+    private CastPolicy() {}
+
+    public enum Action {
+        ADMIT,
+        DEFER,
+        DOWNGRADE,
+        REJECT
+    }
+
+    public record Decision(Action action, int level, @Nullable Text reason) {}
+
+    public static Decision decide(Item tome, SpellEffect effect, int level) {
+        // Tomes from before the level cap (or from commands) cast at the cap
+        if (level > ModConfig.maxTomeLevel) {
+            Decision capped = decide(tome, effect, ModConfig.maxTomeLevel);
+            if (capped.action() != Action.ADMIT) return capped;
+            return new Decision(Action.DOWNGRADE, capped.level(),
+                    Text.literal("Tomes are capped at level " + ModConfig.maxTomeLevel + "; cast at level " + capped.level()));
+        }
+
+        CastCost cost = SpellEffects.estimateCost(effect, level);
+        String over = overLimit(cost);
+
+        if (over == null) {
+            // Slow casts start on a tick that still has room for them
+            LogHistogram castNanos = SpellProfiler.forTome(tome).getCastNanos();
+            if (castNanos.getCount() > 0 && !SpellGovernor.hasRoomFor(castNanos.getPercentile(0.5))) {
+                return new Decision(Action.DEFER, level, Text.literal("Gathering power..."));
+            }
+            return new Decision(Action.ADMIT, level, null);
+        }
+
+        if (ModConfig.castDowngradeOverLimit) {
+            for (int lower = level - 1; lower >= 1; lower--) {
+                if (overLimit(SpellEffects.estimateCost(effect, lower)) == null) {
+                    return new Decision(Action.DOWNGRADE, lower,
+                            Text.literal("Too much power to release here (" + over + "); cast at level " + lower));
+                }
+            }
+        }
+        return new Decision(Action.REJECT, level, Text.literal("Too much power to release here (" + over + ")"));
+    }
+
+    // What limit the cost breaks, or null if none
+    @Nullable
+    private static String overLimit(CastCost cost) {
+        if (cost.blocks() > ModConfig.castMaxBlocks) {
+            return cost.blocks() + " blocks, limit " + ModConfig.castMaxBlocks;
+        }
+        if (cost.entityVolume() > ModConfig.castMaxEntityVolume) {
+            return "searching " + cost.entityVolume() + " blocks for targets, limit " + ModConfig.castMaxEntityVolume;
+        }
+        if (cost.particles() > ModConfig.castMaxParticles) {
+            return cost.particles() + " particles, limit " + ModConfig.castMaxParticles;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+package empegrail.forgotten_knowledge.entity;
+
+import empegrail.forgotten_knowledge.fx.SpellFx;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvents;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Projectile behind the FIRE_BOLT spell: sets its target on fire and knocks it back slightly.
+ */
+public class FireBoltEntity extends SpellProjectileEntity {
+    private final ItemStack displayStack = new ItemStack(Items.FIRE_CHARGE);
+
+    public FireBoltEntity(EntityType<? extends FireBoltEntity> type, World world) {
+        super(type, world);
+    }
+
+    @Override
+    public ItemStack getStack() {
+        return displayStack;
+    }
+
+    @Override
+    protected void spawnTrail(ServerWorld world, Vec3d pos) {
+        // Spawn flame particles along the path
+        SpellFx.particles(world,
+                ParticleTypes.FLAME,
+                pos.x, pos.y, pos.z,
+                2, // Fewer particles for performance
+                0.1, 0.1, 0.1, // Small spread
+                0.01 // Speed
+        );
+    }
+
+    @Override
+    protected void onEntityHit(EntityHitResult entityHitResult) {
+        super.onEntityHit(entityHitResult);
+        if (!(this.getWorld() instanceof ServerWorld serverWorld)
+                || !(entityHitResult.getEntity() instanceof LivingEntity target)) {
+            return;
+        }
+
+        int level = getLevel();
+        int fireDuration = (3 + level) * 20; // In ticks
+        float damage = 4.0f + (level * 2.0f);
+        Vec3d pos = entityHitResult.getPos();
+
+        // Apply damage and fire
+        if (target.damage(serverWorld, this.getDamageSources().magic(), damage)) {
+            target.setOnFireFor(fireDuration);
+
+            // Small knockback
+            Vec3d knockback = this.getVelocity().normalize().multiply(0.3);
+            target.addVelocity(knockback.x, 0.1, knockback.z);
+        }
+
+        // Impact effect
+        SpellFx.particles(serverWorld,
+                ParticleTypes.FLAME,
+                pos.x, pos.y, pos.z,
+                15 + (level * 5),
+                0.5, 0.5, 0.5,
+                0.1
+        );
+
+        // Sound
+        serverWorld.playSound(
+                null,
+                BlockPos.ofFloored(pos),
+                SoundEvents.ENTITY_BLAZE_HURT,
+                SoundCategory.HOSTILE,
+                0.8f, 1.0f
+        );
+    }
+
+    @Override
+    protected void onBlockHit(BlockHitResult blockHitResult) {
+        super.onBlockHit(blockHitResult);
+        if (!(this.getWorld() instanceof ServerWorld serverWorld)) return;
+
+        int level = getLevel();
+        Vec3d pos = blockHitResult.getPos();
+
+        // Block impact effect
+        SpellFx.particles(serverWorld,
+                ParticleTypes.FLAME,
+                pos.x, pos.y, pos.z,
+                10 + (level * 3),
+                0.3, 0.3, 0.3,
+                0.05
+        );
+    }
+}
@@ -0,0 +1,168 @@
+package empegrail.forgotten_knowledge.entity;
+
+import empegrail.forgotten_knowledge.fx.SpellFx;
+import empegrail.forgotten_knowledge.world.SectionBatchWriter;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvents;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Projectile behind the ICE_SPEAR spell: freezes its target and frosts the block it lands on.
+ */
+public class IceSpearEntity extends SpellProjectileEntity {
+    private final ItemStack displayStack = new ItemStack(Items.ICE);
+
+    public IceSpearEntity(EntityType<? extends IceSpearEntity> type, World world) {
+        super(type, world);
+    }
+
+    @Override
+    public ItemStack getStack() {
+        return displayStack;
+    }
+
+    @Override
+    protected void spawnTrail(ServerWorld world, Vec3d pos) {
+        // Spawn ice/snow particles along the path
+        SpellFx.particles(world,
+                ParticleTypes.SNOWFLAKE,
+                pos.x, pos.y, pos.z,
+                2, // Fewer particles for performance
+                0.1, 0.1, 0.1, // Small spread
+                0.01 // Speed
+        );
+
+        // Add ice particles for higher levels
+        if (getLevel() >= 3) {
+            SpellFx.particles(world,
+                    ParticleTypes.ITEM_SNOWBALL,
+                    pos.x, pos.y, pos.z,
+                    1,
+                    0.05, 0.05, 0.05,
+                    0.005
+            );
+        }
+    }
+
+    @Override
+    protected void onEntityHit(EntityHitResult entityHitResult) {
+        super.onEntityHit(entityHitResult);
+        if (!(this.getWorld() instanceof ServerWorld serverWorld)
+                || !(entityHitResult.getEntity() instanceof LivingEntity target)) {
+            return;
+        }
+
+        int level = getLevel();
+        int slownessDuration = (3 + level) * 20; // In ticks (3 seconds + 1s per level)
+        float damage = 4.0f + (level * 2.0f);
+        Vec3d pos = entityHitResult.getPos();
+
+        // Apply damage and slowness (freeze effect)
+        if (target.damage(serverWorld, this.getDamageSources().magic(), damage)) {
+            // Apply slowness as our "freeze" effect
+            target.addStatusEffect(new StatusEffectInstance(
+                    StatusEffects.SLOWNESS,
+                    slownessDuration,
+                    Math.min(level - 1, 3), // Higher levels = stronger slowness (up to Slowness IV)
+                    false, true
+            ));
+
+            // Apply mining fatigue to simulate freezing (reduces attack speed)
+            if (level >= 2) {
+                target.addStatusEffect(new StatusEffectInstance(
+                        StatusEffects.MINING_FATIGUE,
+                        slownessDuration,
+                        Math.min(level - 2, 2), // Scales with level
+                        false, true
+                ));
+            }
+
+            // For very high levels, apply weakness too
+            if (level >= 4) {
+                target.addStatusEffect(new StatusEffectInstance(
+                        StatusEffects.WEAKNESS,
+                        slownessDuration / 2, // Shorter duration
+                        Math.min(level - 4, 1),
+                        false, true
+                ));
+            }
+
+            // Small knockback (less than fire bolt for ice theme)
+            Vec3d knockback = this.getVelocity().normalize().multiply(0.2);
+            target.addVelocity(knockback.x, 0.05, knockback.z);
+            target.velocityModified = true;
+        }
+
+        // Impact effect - ice explosion
+        SpellFx.particles(serverWorld,
+                ParticleTypes.SNOWFLAKE,
+                pos.x, pos.y, pos.z,
+                15 + (level * 5),
+                0.5, 0.5, 0.5,
+                0.1
+        );
+
+        // Ice shard particles for impact
+        SpellFx.particles(serverWorld,
+                ParticleTypes.ITEM_SNOWBALL,
+                pos.x, pos.y, pos.z,
+                10 + (level * 3),
+                0.3, 0.3, 0.3,
+                0.05
+        );
+
+        // Sound - ice breaking
+        serverWorld.playSound(
+                null,
+                BlockPos.ofFloored(pos),
+                SoundEvents.BLOCK_GLASS_BREAK,
+                SoundCategory.HOSTILE,
+                0.8f, 1.2f + (level * 0.1f)
+        );
+    }
+
+    @Override
+    protected void onBlockHit(BlockHitResult blockHitResult) {
+        super.onBlockHit(blockHitResult);
+        if (!(this.getWorld() instanceof ServerWorld serverWorld)) return;
+
+        int level = getLevel();
+        Vec3d pos = blockHitResult.getPos();
+
+        // Block impact effect - create frost on the block
+        SpellFx.particles(serverWorld,
+                ParticleTypes.SNOWFLAKE,
+                pos.x, pos.y, pos.z,
+                10 + (level * 3),
+                0.3, 0.3, 0.3,
+                0.05
+        );
+
+        // Try to place frost/snow on the face that was actually hit
+        BlockPos surfacePos = blockHitResult.getBlockPos().offset(blockHitResult.getSide());
+
+        if (serverWorld.getBlockState(surfacePos).isAir()) {
+            // Place snow or frost walker ice based on level
+            SectionBatchWriter writer = new SectionBatchWriter(serverWorld);
+            if (level >= 3) {
+                writer.set(surfacePos, Blocks.FROSTED_ICE.getDefaultState());
+            } else {
+                writer.set(surfacePos, Blocks.SNOW.getDefaultState());
+            }
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package empegrail.forgotten_knowledge.entity;
+
+import empegrail.forgotten_knowledge.world.VoxelRaycaster;
+import net.minecraft.block.ShapeContext;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.FlyingItemEntity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.projectile.ProjectileEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.hit.HitResult;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Base class for the tick-driven spell projectiles (FIRE_BOLT, ICE_SPEAR).
+ *
+ * The projectile advances once per tick like a vanilla arrow: collision is checked against the segment it
+ * travels this tick, and the client simulates the same straight-line motion between tracker updates.
+ * Bolts are short-lived and never saved with the chunk.
+ */
+public abstract class SpellProjectileEntity extends ProjectileEntity implements FlyingItemEntity {
+    // How far outside a target's hitbox a bolt still counts as a hit (same as vanilla arrows)
+    private static final double HIT_MARGIN = 0.3;
+
+    private final VoxelRaycaster raycaster = new VoxelRaycaster();
+    private int level = 1;
+    private double maxDistance;
+    private double traveled;
+
+    protected SpellProjectileEntity(EntityType<? extends SpellProjectileEntity> type, World world) {
+        super(type, world);
+        this.setNoGravity(true);
+    }
+
+    /**
+     * Position the projectile at the caster's eyes and send it off along their look direction.
+     *
+     * @param speed       blocks per tick
+     * @param maxDistance blocks before the projectile fizzles out
+     */
+    public void launch(PlayerEntity caster, int level, double speed, double maxDistance) {
+        this.setOwner(caster);
+        this.level = level;
+        this.maxDistance = maxDistance;
+
+        Vec3d eyePos = caster.getEyePos();
+        this.refreshPositionAndAngles(eyePos.x, eyePos.y - 0.1, eyePos.z, caster.getYaw(), caster.getPitch());
+        this.setVelocity(caster.getRotationVec(1.0f).normalize().multiply(speed));
+    }
+
+    protected int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+        Vec3d velocity = this.getVelocity();
+
+        if (this.getWorld() instanceof ServerWorld serverWorld) {
+            HitResult hit = findCollision(serverWorld, velocity);
+            if (hit != null) {
+                spawnTrailAlong(serverWorld, this.getPos(), hit.getPos());
+                this.setPosition(hit.getPos());
+                this.onCollision(hit);
+                this.discard();
+                return;
+            }
+
+            spawnTrailAlong(serverWorld, this.getPos(), this.getPos().add(velocity));
+
+            traveled += velocity.length();
+            if (traveled >= maxDistance) {
+                this.discard();
+                return;
+            }
+        }
+
+        // Both sides move the same way, so the client stays in step between tracker updates
+        this.setPosition(this.getPos().add(velocity));
+    }
+
+    // Blocks first, then one swept entity query over the part of this tick's path in front of the block
+    @Nullable
+    private HitResult findCollision(ServerWorld world, Vec3d velocity) {
+        Vec3d from = this.getPos();
+        Vec3d to = from.add(velocity);
+
+        BlockHitResult blockHit = null;
+        if (raycaster.cast(world, from, to, ShapeContext.of(this))) {
+            blockHit = raycaster.toHitResult();
+            to = blockHit.getPos();
+        }
+
+        EntityHitResult entityHit = SweptEntityQuery.first(world, this, from, to, HIT_MARGIN, this::canHit);
+        return entityHit != null ? entityHit : blockHit;
+    }
+
+    // Keep the old look of one trail puff per block travelled
+    private void spawnTrailAlong(ServerWorld world, Vec3d from, Vec3d to) {
+        Vec3d delta = to.subtract(from);
+        int steps = Math.max(1, (int) Math.ceil(delta.length()));
+        for (int i = 0; i < steps; i++) {
+            spawnTrail(world, from.add(delta.multiply((double) i / steps)));
+        }
+    }
+
+    /**
+     * Spawn the trail particles for one block of travel.
+     */
+    protected abstract void spawnTrail(ServerWorld world, Vec3d pos);
+
+    @Override
+    protected boolean canHit(Entity entity) {
+        // Spell bolts only ever cared about living targets
+        return entity instanceof LivingEntity && entity.isAlive() && super.canHit(entity);
+    }
+
+    @Override
+    protected void initDataTracker(DataTracker.Builder builder) {
+    }
+
+    @Override
+    public boolean damage(ServerWorld world, DamageSource source, float amount) {
+        // Bolts cannot be shot down or deflected
+        return false;
+    }
+
+    @Override
+    public boolean shouldSave() {
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package empegrail.forgotten_knowledge.entity;
+
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Entity hit detection for a moving point with some thickness, swept along a segment.
+ *
+ * One spatial query covers the whole segment. Each candidate is then tested exactly, segment against its
+ * hitbox grown by the sweep radius, so targets between two sample points can no longer be skipped.
+ * The hit is the entity whose grown hitbox the segment enters first.
+ */
+public final class SweptEntityQuery {
+    private SweptEntityQuery() {}
+
+    /**
+     * The first entity the segment runs into, or null if it hits nothing.
+     */
+    @Nullable
+    public static EntityHitResult first(World world, @Nullable Entity except, Vec3d from, Vec3d to,
+                                        double radius, Predicate<Entity> filter) {
+        countQuery(world);
+        EntityHitResult best = null;
+        double bestDistance = Double.MAX_VALUE;
+
+        for (Entity candidate : world.getOtherEntities(except, sweepBounds(from, to, radius), filter)) {
+            Vec3d entry = entryPoint(candidate, from, to, radius);
+            if (entry == null) continue;
+
+            double distance = from.squaredDistanceTo(entry);
+            if (distance < bestDistance) {
+                best = new EntityHitResult(candidate, entry);
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    // Any hitbox the swept segment can touch intersects this box
+    private static Box sweepBounds(Vec3d from, Vec3d to, double radius) {
+        return new Box(from, to).expand(radius);
+    }
+
+    // Where the segment enters the grown hitbox; the start itself if it begins inside
+    @Nullable
+    private static Vec3d entryPoint(Entity candidate, Vec3d from, Vec3d to, double radius) {
+        Box hitbox = candidate.getBoundingBox().expand(radius);
+        if (hitbox.contains(from)) {
+            return from;
+        }
+        Optional<Vec3d> entry = hitbox.raycast(from, to);
+        return entry.orElse(null);
+    }
+
+    // Projectiles also sweep on the client, which has no spell profile
+    private static void countQuery(World world) {
+        if (!world.isClient()) {
+            SpellProfiler.countEntityQuery();
+        }
+    }
+}
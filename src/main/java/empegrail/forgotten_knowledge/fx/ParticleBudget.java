@@ -0,0 +1,96 @@
+package empegrail.forgotten_knowledge.fx;
+
+import empegrail.forgotten_knowledge.ModConfig;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * Decides how many spell particles each player actually gets.
+ *
+ * Emissions are thinned out with distance to the viewer. Each player also has a particle allowance per
+ * tick. When the rolling MSPT goes over the configured threshold, both the emissions and the allowance
+ * shrink in proportion, so heavy casting degrades the visuals instead of the tick rate.
+ */
+final class ParticleBudget {
+    private ParticleBudget() {}
+
+    // Smoothing for the rolling MSPT; about one second worth of ticks
+    private static final double MSPT_SMOOTHING = 0.05;
+
+    // Particles already handed to each player this tick
+    private static final Reference2IntOpenHashMap<ServerPlayerEntity> spent = new Reference2IntOpenHashMap<>();
+
+    private static long tickStartNanos;
+    private static double rollingMspt;
+    private static double loadScale = 1.0;
+    private static long droppedParticles;
+
+    static void register() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            tickStartNanos = System.nanoTime();
+            spent.clear();
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            double mspt = (System.nanoTime() - tickStartNanos) / 1_000_000.0;
+            rollingMspt += (mspt - rollingMspt) * MSPT_SMOOTHING;
+            loadScale = computeLoadScale(rollingMspt);
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            spent.clear();
+            rollingMspt = 0.0;
+            loadScale = 1.0;
+        });
+    }
+
+    /**
+     * How many of count particles at the given squared distance the viewer should receive; 0 to skip.
+     */
+    static int allow(ServerPlayerEntity viewer, double distanceSq, int count, Random random) {
+        double wanted = count * distanceScale(distanceSq) * loadScale;
+
+        // Round randomly so a pile of 1-particle emissions thins out evenly instead of vanishing
+        int scaled = (int) wanted;
+        if (random.nextDouble() < wanted - scaled) {
+            scaled++;
+        }
+
+        int budget = (int) (ModConfig.particleBudgetPerPlayerPerTick * loadScale);
+        int used = spent.getInt(viewer);
+        int granted = Math.max(0, Math.min(scaled, budget - used));
+
+        if (granted > 0) {
+            spent.put(viewer, used + granted);
+        }
+        droppedParticles += count - granted;
+        return granted;
+    }
+
+    static double getRollingMspt() {
+        return rollingMspt;
+    }
+
+    static long getDroppedParticles() {
+        return droppedParticles;
+    }
+
+    // Full detail up close, fading linearly to the configured floor at the edge of particle range
+    private static double distanceScale(double distanceSq) {
+        double distance = Math.sqrt(distanceSq);
+        double near = ModConfig.particleFullDetailDistance;
+        if (distance <= near) return 1.0;
+
+        double fade = (distance - near) / Math.max(1.0, SpellFx.VIEW_DISTANCE - near);
+        return MathHelper.lerp(MathHelper.clamp(fade, 0.0, 1.0), 1.0, ModConfig.particleMinDistanceScale);
+    }
+
+    // 1 under the threshold, then threshold / mspt (half the particles at twice the threshold)
+    private static double computeLoadScale(double mspt) {
+        double threshold = ModConfig.particleMsptThreshold;
+        if (mspt <= threshold) return 1.0;
+        return Math.max(ModConfig.particleMinLoadScale, threshold / mspt);
+    }
+}
@@ -0,0 +1,15 @@
+package empegrail.forgotten_knowledge.fx;
+
+import net.minecraft.particle.ParticleEffect;
+
+/**
+ * Target for procedurally generated spell particles.
+ *
+ * The arguments mean the same as in ServerWorld.spawnParticles(), so a pattern can be sent as regular
+ * particle packets (vanilla clients) or expanded locally by the client mod.
+ */
+@FunctionalInterface
+public interface ParticleSink {
+    void emit(ParticleEffect effect, double x, double y, double z, int count,
+              double deltaX, double deltaY, double deltaZ, double speed);
+}
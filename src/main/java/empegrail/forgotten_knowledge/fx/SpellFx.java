@@ -0,0 +1,221 @@
+package empegrail.forgotten_knowledge.fx;
+
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Batches spell particles for the current tick.
+ *
+ * particles() takes the same arguments as ServerWorld.spawnParticles(). Instead of sending right away, it
+ * merges every emission of the same particle and speed that falls in the same 2-block cell. The merged
+ * emission is sent once at the end of the server tick, at the weighted center of its parts, with its
+ * spread widened to cover them. A death burst that used to take hundreds of packets per viewer now takes
+ * a handful.
+ *
+ * Bigger set pieces go out through effect() as a single {@link SpellFxPayload} that the client mod expands
+ * locally. Players without the mod get the same particles the old way, batched per viewer.
+ *
+ * What each player finally receives is trimmed by the {@link ParticleBudget}.
+ *
+ * NOTE: Call SpellFx.register() during mod initialization.
+ */
+public final class SpellFx {
+    private SpellFx() {}
+
+    // Emissions closer than this (in blocks) are merged
+    private static final double CELL_SIZE = 2.0;
+    // Vanilla only sends particles to players within 32 blocks
+    static final double VIEW_DISTANCE = 32.0;
+
+    private static final Map<BatchKey, Batch> pending = new LinkedHashMap<>();
+
+    // Lifetime counters: emissions effects asked for vs. particle packets that actually went out
+    private static long requestedEmissions;
+    private static long sentEmissions;
+    private static long sentPayloads;
+
+    public static void register() {
+        PayloadTypeRegistry.playS2C().register(SpellFxPayload.ID, SpellFxPayload.CODEC);
+        ParticleBudget.register();
+
+        ServerTickEvents.END_SERVER_TICK.register(server -> flush());
+
+        // Nothing should be held across a restart
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> pending.clear());
+    }
+
+    /**
+     * Queue particles for the end of this tick. Same meaning as ServerWorld.spawnParticles().
+     */
+    public static void particles(ServerWorld world, ParticleEffect effect,
+                                 double x, double y, double z, int count,
+                                 double deltaX, double deltaY, double deltaZ, double speed) {
+        queue(world, null, effect, x, y, z, count, deltaX, deltaY, deltaZ, speed);
+    }
+
+    /**
+     * Play a described effect for everyone in range: one payload to players with the mod, regular
+     * (batched) particles to everyone else.
+     */
+    public static void effect(ServerWorld world, SpellFxType type, double x, double y, double z,
+                              float radius, int level) {
+        SpellFxPayload payload = new SpellFxPayload(type, x, y, z, radius, level, world.random.nextLong());
+        double range = VIEW_DISTANCE + type.reach(payload);
+
+        for (ServerPlayerEntity player : PlayerLookup.around(world, new Vec3d(x, y, z), range)) {
+            if (ServerPlayNetworking.canSend(player, SpellFxPayload.ID)) {
+                ServerPlayNetworking.send(player, payload);
+                sentPayloads++;
+            } else {
+                type.expand(payload, (effect, px, py, pz, count, dx, dy, dz, speed) ->
+                        queue(world, player, effect, px, py, pz, count, dx, dy, dz, speed));
+            }
+        }
+    }
+
+    // viewer == null sends to everyone nearby, like ServerWorld.spawnParticles()
+    private static void queue(ServerWorld world, @Nullable ServerPlayerEntity viewer, ParticleEffect effect,
+                              double x, double y, double z, int count,
+                              double deltaX, double deltaY, double deltaZ, double speed) {
+        requestedEmissions++;
+        SpellProfiler.countParticles(Math.max(count, 1));
+
+        // A count of 0 makes the deltas a velocity; those cannot be merged
+        if (count <= 0) {
+            send(world, viewer, effect, x, y, z, count, deltaX, deltaY, deltaZ, speed);
+            return;
+        }
+
+        long cell = BlockPos.asLong(
+                MathHelper.floor(x / CELL_SIZE), MathHelper.floor(y / CELL_SIZE), MathHelper.floor(z / CELL_SIZE));
+        BatchKey key = new BatchKey(world, viewer, effect, cell, Double.doubleToLongBits(speed));
+        pending.computeIfAbsent(key, k -> new Batch()).add(x, y, z, count, deltaX, deltaY, deltaZ);
+    }
+
+    private static void send(ServerWorld world, @Nullable ServerPlayerEntity viewer, ParticleEffect effect,
+                             double x, double y, double z, int count,
+                             double deltaX, double deltaY, double deltaZ, double speed) {
+        if (viewer != null) {
+            sendTo(world, viewer, effect, x, y, z, count, deltaX, deltaY, deltaZ, speed);
+            return;
+        }
+        // Every player in range gets their own share, sized by their distance and budget
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            sendTo(world, player, effect, x, y, z, count, deltaX, deltaY, deltaZ, speed);
+        }
+    }
+
+    private static void sendTo(ServerWorld world, ServerPlayerEntity viewer, ParticleEffect effect,
+                               double x, double y, double z, int count,
+                               double deltaX, double deltaY, double deltaZ, double speed) {
+        double distanceSq = viewer.squaredDistanceTo(x, y, z);
+        if (distanceSq > VIEW_DISTANCE * VIEW_DISTANCE) return;
+
+        // A directional (count 0) emission is a single particle
+        int allowed = ParticleBudget.allow(viewer, distanceSq, Math.max(count, 1), world.random);
+        if (allowed == 0) return;
+
+        world.spawnParticles(viewer, effect, false, false, x, y, z, count == 0 ? 0 : allowed,
+                deltaX, deltaY, deltaZ, speed);
+        sentEmissions++;
+    }
+
+    /**
+     * Send everything queued this tick.
+     */
+    public static void flush() {
+        if (pending.isEmpty()) return;
+
+        for (Map.Entry<BatchKey, Batch> entry : pending.entrySet()) {
+            BatchKey key = entry.getKey();
+            Batch batch = entry.getValue();
+            // Players may have left since the emission was queued
+            if (key.viewer != null && key.viewer.isRemoved()) continue;
+
+            send(key.world, key.viewer, key.effect,
+                    batch.centerX(), batch.centerY(), batch.centerZ(), batch.count,
+                    batch.spreadX(), batch.spreadY(), batch.spreadZ(),
+                    Double.longBitsToDouble(key.speedBits));
+        }
+        pending.clear();
+    }
+
+    public static long getRequestedEmissions() {
+        return requestedEmissions;
+    }
+
+    public static long getSentEmissions() {
+        return sentEmissions;
+    }
+
+    public static long getSentPayloads() {
+        return sentPayloads;
+    }
+
+    /**
+     * Particles left out by the distance and load budget since startup.
+     */
+    public static long getDroppedParticles() {
+        return ParticleBudget.getDroppedParticles();
+    }
+
+    public static double getRollingMspt() {
+        return ParticleBudget.getRollingMspt();
+    }
+
+    private record BatchKey(ServerWorld world, @Nullable ServerPlayerEntity viewer, ParticleEffect effect,
+                            long cell, long speedBits) {}
+
+    /*
+     * Running sums for one merged emission. The client scatters particles with a gaussian of the given
+     * spread, so the merged spread is the one of the whole mixture: mean part variance plus the variance
+     * of the part centers, weighted by particle count.
+     */
+    private static final class Batch {
+        int count;
+        double sumX, sumY, sumZ;
+        double sumSqX, sumSqY, sumSqZ;
+        double sumVarX, sumVarY, sumVarZ;
+
+        void add(double x, double y, double z, int n, double dx, double dy, double dz) {
+            count += n;
+            sumX += n * x;
+            sumY += n * y;
+            sumZ += n * z;
+            sumSqX += n * x * x;
+            sumSqY += n * y * y;
+            sumSqZ += n * z * z;
+            sumVarX += n * dx * dx;
+            sumVarY += n * dy * dy;
+            sumVarZ += n * dz * dz;
+        }
+
+        double centerX() { return sumX / count; }
+        double centerY() { return sumY / count; }
+        double centerZ() { return sumZ / count; }
+
+        double spreadX() { return spread(sumX, sumSqX, sumVarX); }
+        double spreadY() { return spread(sumY, sumSqY, sumVarY); }
+        double spreadZ() { return spread(sumZ, sumSqZ, sumVarZ); }
+
+        private double spread(double sum, double sumSq, double sumVar) {
+            double mean = sum / count;
+            double centerVariance = Math.max(0.0, sumSq / count - mean * mean);
+            return Math.sqrt(sumVar / count + centerVariance);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package empegrail.forgotten_knowledge.fx;
+
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * A whole spell visual in a few dozen bytes: what it is, where, how big, and the random seed the client
+ * uses to scatter the particles.
+ */
+public record SpellFxPayload(SpellFxType type, double x, double y, double z, float radius, int level, long seed)
+        implements CustomPayload {
+    public static final CustomPayload.Id<SpellFxPayload> ID =
+            new CustomPayload.Id<>(Identifier.of(ForgottenKnowledge.MOD_ID, "spell_fx"));
+    public static final PacketCodec<PacketByteBuf, SpellFxPayload> CODEC =
+            CustomPayload.codecOf(SpellFxPayload::write, SpellFxPayload::read);
+
+    private void write(PacketByteBuf buf) {
+        buf.writeByte(type.ordinal());
+        buf.writeDouble(x);
+        buf.writeDouble(y);
+        buf.writeDouble(z);
+        buf.writeFloat(radius);
+        buf.writeVarInt(level);
+        buf.writeLong(seed);
+    }
+
+    private static SpellFxPayload read(PacketByteBuf buf) {
+        int id = buf.readUnsignedByte();
+        SpellFxType type = SpellFxType.byId(id);
+        if (type == null) {
+            throw new DecoderException("Unknown spell fx type " + id);
+        }
+        return new SpellFxPayload(type, buf.readDouble(), buf.readDouble(), buf.readDouble(),
+                buf.readFloat(), buf.readVarInt(), buf.readLong());
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
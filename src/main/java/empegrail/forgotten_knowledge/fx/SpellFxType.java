@@ -0,0 +1,128 @@
+package empegrail.forgotten_knowledge.fx;
+
+import empegrail.forgotten_knowledge.world.SpellShapes;
+import net.minecraft.particle.ParticleTypes;
+
+/**
+ * Spell visuals that can be described by a {@link SpellFxPayload} and rebuilt on the client.
+ *
+ * Each type expands a payload into the exact particle emissions the server used to send, so modded and
+ * vanilla clients see the same effect.
+ */
+public enum SpellFxType {
+    // Edges of the VANISH_OBJECT cube; origin is the target block, radius the cube size
+    VANISH_OUTLINE {
+        @Override
+        public void expand(SpellFxPayload fx, ParticleSink sink) {
+            int size = (int) fx.radius();
+            int offset = size / 2;
+            int startX = (int) fx.x() - offset, startY = (int) fx.y() - offset, startZ = (int) fx.z() - offset;
+            int endX = startX + size - 1, endY = startY + size - 1, endZ = startZ + size - 1;
+
+            // Spawn particles along the edges of the cube
+            for (int i = 0; i < size; i++) {
+                // Bottom face edges
+                outlineParticle(sink, startX + i, startY, startZ);
+                outlineParticle(sink, startX + i, startY, endZ);
+                outlineParticle(sink, startX, startY, startZ + i);
+                outlineParticle(sink, endX, startY, startZ + i);
+
+                // Top face edges
+                outlineParticle(sink, startX + i, endY, startZ);
+                outlineParticle(sink, startX + i, endY, endZ);
+                outlineParticle(sink, startX, endY, startZ + i);
+                outlineParticle(sink, endX, endY, startZ + i);
+
+                // Vertical edges
+                outlineParticle(sink, startX, startY + i, startZ);
+                outlineParticle(sink, endX, startY + i, startZ);
+                outlineParticle(sink, startX, startY + i, endZ);
+                outlineParticle(sink, endX, startY + i, endZ);
+            }
+        }
+    },
+
+    // HOLY_NOVA burst and shockwave; origin is the caster's feet
+    NOVA_BURST {
+        @Override
+        public void expand(SpellFxPayload fx, ParticleSink sink) {
+            double radius = fx.radius();
+
+            // Burst of golden light particles
+            SpellShapes.Circle burst = SpellShapes.circle(50);
+            for (int i = 0; i < burst.size(); i++) {
+                double x = fx.x() + burst.cos(i) * radius;
+                double z = fx.z() + burst.sin(i) * radius;
+                double y = fx.y() + 1.0;
+
+                sink.emit(ParticleTypes.ELECTRIC_SPARK, x, y, z, 3, 0.5, 1.0, 0.5, 0.1);
+                // Additional glow effect
+                sink.emit(ParticleTypes.GLOW, x, y + 0.5, z, 2, 0.3, 0.3, 0.3, 0.05);
+            }
+
+            // Shockwave: expanding rings of glow, mostly upward
+            SpellShapes.Circle wave = SpellShapes.circle(20);
+            for (int ring = 1; ring <= 3; ring++) {
+                double ringRadius = radius * (ring / 3.0);
+                for (int i = 0; i < wave.size(); i++) {
+                    sink.emit(ParticleTypes.GLOW,
+                            fx.x() + wave.cos(i) * ringRadius, fx.y() + 0.5, fx.z() + wave.sin(i) * ringRadius,
+                            1, 0, 0.1, 0, 0.2);
+                }
+            }
+        }
+    },
+
+    // VERMIN_BANE burst and shockwave; origin is the caster's feet
+    VERMIN_BURST {
+        @Override
+        public void expand(SpellFxPayload fx, ParticleSink sink) {
+            double radius = fx.radius();
+
+            // Black/gray particle burst with ash for the dark energy effect
+            SpellShapes.Circle burst = SpellShapes.circle(40);
+            for (int i = 0; i < burst.size(); i++) {
+                double x = fx.x() + burst.cos(i) * radius;
+                double z = fx.z() + burst.sin(i) * radius;
+                double y = fx.y() + 1.0;
+
+                sink.emit(ParticleTypes.SMOKE, x, y, z, 2, 0.3, 0.5, 0.3, 0.1);
+                sink.emit(ParticleTypes.ASH, x, y, z, 1, 0.2, 0.3, 0.2, 0.08);
+            }
+
+            // Shockwave: expanding rings of dark particles, mostly upward
+            SpellShapes.Circle wave = SpellShapes.circle(15);
+            for (int ring = 1; ring <= 3; ring++) {
+                double ringRadius = radius * (ring / 3.0);
+                for (int i = 0; i < wave.size(); i++) {
+                    sink.emit(ParticleTypes.SMOKE,
+                            fx.x() + wave.cos(i) * ringRadius, fx.y() + 0.5, fx.z() + wave.sin(i) * ringRadius,
+                            2, 0, 0.2, 0, 0.15);
+                }
+            }
+        }
+    };
+
+    private static final SpellFxType[] VALUES = values();
+
+    /**
+     * Emit every particle of this effect.
+     */
+    public abstract void expand(SpellFxPayload fx, ParticleSink sink);
+
+    /**
+     * Farthest any particle of the effect lands from its origin.
+     */
+    public double reach(SpellFxPayload fx) {
+        // The cube outline runs up to its full size away on each axis; rings stay within their radius
+        return this == VANISH_OUTLINE ? fx.radius() * Math.sqrt(3) : fx.radius() + 1.0;
+    }
+
+    static SpellFxType byId(int id) {
+        return id >= 0 && id < VALUES.length ? VALUES[id] : null;
+    }
+
+    private static void outlineParticle(ParticleSink sink, int x, int y, int z) {
+        sink.emit(ParticleTypes.ENCHANT, x + 0.5, y + 0.5, z + 0.5, 1, 0, 0, 0, 0);
+    }
+}
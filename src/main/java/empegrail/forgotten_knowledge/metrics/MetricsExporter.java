@@ -0,0 +1,122 @@
+package empegrail.forgotten_knowledge.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import empegrail.forgotten_knowledge.ModConfig;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link SpellMetrics} while a server runs, if metrics.enabled is set: either as an HTTP endpoint
+ * at http://metrics.bindAddress:metrics.port/metrics, or, when metrics.textfile is set, by rewriting that
+ * file every few seconds for node-exporter's textfile collector.
+ *
+ * All rendering and I/O happens on one daemon thread of its own, never on the server thread.
+ */
+final class MetricsExporter {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final ThreadFactory THREADS = runnable -> {
+        Thread thread = new Thread(runnable, "Forgotten Knowledge metrics");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    @Nullable private static HttpServer http;
+    @Nullable private static ExecutorService executor;
+
+    private MetricsExporter() {}
+
+    static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> start());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> stop());
+    }
+
+    private static void start() {
+        if (!ModConfig.metricsEnabled) return;
+
+        if (!ModConfig.metricsTextfile.isEmpty()) {
+            Path path;
+            try {
+                path = Path.of(ModConfig.metricsTextfile);
+            } catch (InvalidPathException e) {
+                ForgottenKnowledge.LOGGER.error("Invalid metrics.textfile '{}'", ModConfig.metricsTextfile, e);
+                return;
+            }
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(THREADS);
+            scheduler.scheduleAtFixedRate(() -> writeTextfile(path), 0,
+                    ModConfig.metricsTextfileIntervalSeconds, TimeUnit.SECONDS);
+            executor = scheduler;
+            ForgottenKnowledge.LOGGER.info("Writing spell metrics to {}", path);
+            return;
+        }
+
+        try {
+            HttpServer server = HttpServer.create(
+                    new InetSocketAddress(ModConfig.metricsBindAddress, ModConfig.metricsPort), 0);
+            server.createContext("/metrics", MetricsExporter::respond);
+            executor = Executors.newSingleThreadExecutor(THREADS);
+            server.setExecutor(executor);
+            server.start();
+            http = server;
+            ForgottenKnowledge.LOGGER.info("Serving spell metrics on http://{}:{}/metrics",
+                    ModConfig.metricsBindAddress, ModConfig.metricsPort);
+        } catch (IOException | IllegalArgumentException e) {
+            // A bad bind address must not keep the server from starting
+            ForgottenKnowledge.LOGGER.error("Could not serve spell metrics on {}:{}",
+                    ModConfig.metricsBindAddress, ModConfig.metricsPort, e);
+            stop();
+        }
+    }
+
+    private static void stop() {
+        if (http != null) {
+            http.stop(0);
+            http = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = SpellMetrics.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // Written next to the target and moved over it, so the collector never reads half a file
+    private static void writeTextfile(Path path) {
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(temp, SpellMetrics.render(), StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            ForgottenKnowledge.LOGGER.warn("Could not write spell metrics to {}", path, e);
+        }
+    }
+}
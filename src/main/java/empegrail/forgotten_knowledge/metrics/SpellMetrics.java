@@ -0,0 +1,155 @@
+package empegrail.forgotten_knowledge.metrics;
+
+import empegrail.forgotten_knowledge.ModConfig;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import empegrail.forgotten_knowledge.spell.AnvilMemo;
+import empegrail.forgotten_knowledge.state.SpellStateStore;
+import empegrail.forgotten_knowledge.state.SpellStates;
+import empegrail.forgotten_knowledge.world.BlockEditEngine;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and gauges of the spell subsystems, in Prometheus text format.
+ *
+ * Counters are LongAdders: the game threads bump a striped cell and only the exporter thread pays for
+ * summing them. Gauges (spell state sizes, pending tasks) can only be read on the server thread, so they
+ * are sampled there once a second into an immutable snapshot that the exporter reads.
+ *
+ * NOTE: Call SpellMetrics.register() once from the mod initializer.
+ */
+public final class SpellMetrics {
+    private static final String PREFIX = "forgotten_knowledge_";
+    private static final int SAMPLE_INTERVAL = 20;
+
+    private static final Map<Item, TomeCounters> TOMES = new ConcurrentHashMap<>();
+    // Anvil spell recipe lookups (memo misses) on the server, and how many found a recipe
+    private static final LongAdder ANVIL_LOOKUPS = new LongAdder();
+    private static final LongAdder ANVIL_MATCHES = new LongAdder();
+
+    private static volatile Gauges gauges = Gauges.EMPTY;
+
+    private SpellMetrics() {}
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (ModConfig.metricsEnabled && server.getTicks() % SAMPLE_INTERVAL == 0) {
+                gauges = Gauges.sample();
+            }
+        });
+        MetricsExporter.register();
+    }
+
+    public static void countCast(Item tome, int level) {
+        tome(tome).casts(level).increment();
+    }
+
+    public static void countXpFailure(Item tome) {
+        tome(tome).xpFailures.increment();
+    }
+
+    public static void countAnvilLookup(boolean matched) {
+        ANVIL_LOOKUPS.increment();
+        if (matched) ANVIL_MATCHES.increment();
+    }
+
+    private static TomeCounters tome(Item tome) {
+        return TOMES.computeIfAbsent(tome, TomeCounters::new);
+    }
+
+    /**
+     * Everything, in Prometheus text exposition format 0.0.4.
+     */
+    public static String render() {
+        StringBuilder out = new StringBuilder(2048);
+
+        header(out, "casts_total", "counter", "Spells cast, by tome and level.");
+        for (TomeCounters tome : TOMES.values()) {
+            for (int level = 1; level < tome.casts.length; level++) {
+                long casts = tome.casts[level].sum();
+                if (casts > 0) {
+                    out.append(PREFIX).append("casts_total{tome=\"").append(tome.name)
+                            .append("\",level=\"").append(level).append("\"} ").append(casts).append('\n');
+                }
+            }
+        }
+
+        header(out, "xp_check_failures_total", "counter", "Casts refused for lack of XP, by tome.");
+        for (TomeCounters tome : TOMES.values()) {
+            out.append(PREFIX).append("xp_check_failures_total{tome=\"").append(tome.name).append("\"} ")
+                    .append(tome.xpFailures.sum()).append('\n');
+        }
+
+        header(out, "anvil_recipe_lookups_total", "counter", "Spell recipe lookups in anvils (memo misses).");
+        sample(out, "anvil_recipe_lookups_total", ANVIL_LOOKUPS.sum());
+        header(out, "anvil_recipe_matches_total", "counter", "Spell recipe lookups that found a recipe.");
+        sample(out, "anvil_recipe_matches_total", ANVIL_MATCHES.sum());
+        header(out, "anvil_memo_hits_total", "counter", "Anvil updates answered from the memo, both sides.");
+        sample(out, "anvil_memo_hits_total", AnvilMemo.getHits());
+
+        Gauges current = gauges;
+        header(out, "spell_state_entities", "gauge", "Entities carrying a spell state, by state.");
+        List<SpellStateStore<?>> stores = SpellStates.getStores();
+        for (int i = 0; i < stores.size() && i < current.stateSizes.length; i++) {
+            out.append(PREFIX).append("spell_state_entities{state=\"").append(stores.get(i).getName())
+                    .append("\"} ").append(current.stateSizes[i]).append('\n');
+        }
+        header(out, "scheduled_tasks", "gauge", "Delayed spell phases waiting for their tick.");
+        sample(out, "scheduled_tasks", current.scheduledTasks);
+        header(out, "governor_backlog", "gauge", "Spell work held back by the tick budget.");
+        sample(out, "governor_backlog", current.backlog);
+        header(out, "block_edit_jobs", "gauge", "Bulk block edits in progress.");
+        sample(out, "block_edit_jobs", current.blockEditJobs);
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static final class TomeCounters {
+        final String name;
+        // Indexed by level; casts are capped at ModConfig.maxTomeLevel
+        final LongAdder[] casts;
+        final LongAdder xpFailures = new LongAdder();
+
+        TomeCounters(Item tome) {
+            this.name = Registries.ITEM.getId(tome).getPath();
+            this.casts = new LongAdder[ModConfig.maxTomeLevel + 1];
+            for (int i = 0; i < casts.length; i++) {
+                casts[i] = new LongAdder();
+            }
+        }
+
+        LongAdder casts(int level) {
+            return casts[Math.clamp(level, 1, casts.length - 1)];
+        }
+    }
+
+    private record Gauges(long[] stateSizes, long scheduledTasks, long backlog, long blockEditJobs) {
+        static final Gauges EMPTY = new Gauges(new long[0], 0, 0, 0);
+
+        // Server thread only
+        static Gauges sample() {
+            List<SpellStateStore<?>> stores = SpellStates.getStores();
+            long[] sizes = new long[stores.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = stores.get(i).size();
+            }
+            return new Gauges(sizes, SpellScheduler.pendingTasks(), SpellGovernor.getBacklogSize(),
+                    BlockEditEngine.activeJobs());
+        }
+    }
+}
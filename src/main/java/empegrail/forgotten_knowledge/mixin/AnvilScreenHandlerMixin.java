@@ -1,17 +1,22 @@
 package empegrail.forgotten_knowledge.mixin;
 
+import empegrail.forgotten_knowledge.ModConfig;
 import empegrail.forgotten_knowledge.ModDataComponents;
 import empegrail.forgotten_knowledge.SpellTomeItem;
-import empegrail.forgotten_knowledge.spell.ModSpellRegistry;
+import empegrail.forgotten_knowledge.metrics.SpellMetrics;
+import empegrail.forgotten_knowledge.profile.AnvilMatchEvent;
+import empegrail.forgotten_knowledge.spell.AnvilMemo;
 import empegrail.forgotten_knowledge.spell.SpellRecipe;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import empegrail.forgotten_knowledge.spell.SpellRecipeIndex;
 import net.minecraft.component.DataComponentTypes;
 import net.minecraft.component.type.ItemEnchantmentsComponent;
 import net.minecraft.enchantment.Enchantment;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
-import net.minecraft.registry.RegistryKey;
-import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKeys;
 import net.minecraft.screen.AnvilScreenHandler;
 import net.minecraft.screen.Property;
 import org.spongepowered.asm.mixin.Final;
@@ -22,8 +27,6 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.Optional;
-
 /**
  * Mixin that handles both spell recipe creation and spell tome level upgrading.
  */
@@ -32,6 +35,9 @@ public abstract class AnvilScreenHandlerMixin {
 
     @Shadow @Final private Property levelCost;
 
+    // Last inputs and the spell result they gave, so unchanged slots skip matching and copying
+    @Unique private final AnvilMemo forgotten_knowledge$memo = new AnvilMemo();
+
     @Inject(method = "updateResult", at = @At("RETURN"))
     private void onUpdateResult(CallbackInfo ci) {
         AnvilScreenHandler self = (AnvilScreenHandler) (Object) this;
@@ -40,58 +46,86 @@ public abstract class AnvilScreenHandlerMixin {
         ItemStack left = self.getSlot(0).getStack();
         ItemStack right = self.getSlot(1).getStack();
 
-        // First, check if we're combining two spell tomes of the same type
-        if (left.getItem() instanceof SpellTomeItem && right.getItem() instanceof SpellTomeItem) {
-            if (left.getItem() == right.getItem()) {
-                // Both are the same type of spell tome - try to upgrade
-                handleSpellTomeUpgrade(self, left, right);
-                return;
+        // Two spell tomes of the same type upgrade; two enchanted books may form a recipe
+        boolean tomeUpgrade = left.getItem() instanceof SpellTomeItem && left.getItem() == right.getItem();
+        boolean bookRecipe = left.isOf(Items.ENCHANTED_BOOK) && right.isOf(Items.ENCHANTED_BOOK);
+        if (!tomeUpgrade && !bookRecipe) {
+            return;
+        }
+
+        AnvilMatchEvent event = new AnvilMatchEvent();
+        event.begin();
+
+        AnvilMemo memo = this.forgotten_knowledge$memo;
+        boolean memoHit = memo.matches(left, right);
+        if (!memoHit) {
+            if (tomeUpgrade) {
+                handleSpellTomeUpgrade(memo, left, right);
+            } else {
+                handleSpellRecipe(self, memo, left, right);
             }
         }
 
-        // If not upgrading spell tomes, check for enchanted book recipes
-        if (!left.isOf(Items.ENCHANTED_BOOK) || !right.isOf(Items.ENCHANTED_BOOK)) {
-            return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.left = Registries.ITEM.getId(left.getItem()).toString();
+            event.right = Registries.ITEM.getId(right.getItem()).toString();
+            event.memoHit = memoHit;
+            event.result = memo.getResult().isEmpty() ? null : Registries.ITEM.getId(memo.getResult().getItem()).toString();
+            event.client = ((ForgingScreenHandlerAccessor) self).forgotten_knowledge$getPlayer().getWorld().isClient();
+            event.commit();
         }
 
+        // Put the spell result into the anvil output slot (slot index 2) and show its XP cost
+        if (!memo.getResult().isEmpty()) {
+            self.getSlot(2).setStack(memo.getResult());
+            this.levelCost.set(memo.getCost());
+        }
+    }
+
+    // The result stack now belongs to the player; never hand the same instance out twice
+    @Inject(method = "onTakeOutput", at = @At("HEAD"))
+    private void onTakeOutput(PlayerEntity player, ItemStack stack, CallbackInfo ci) {
+        this.forgotten_knowledge$memo.invalidate();
+    }
+
+    /**
+     * Match two enchanted books against the spell recipes
+     */
+    @Unique
+    private void handleSpellRecipe(AnvilScreenHandler self, AnvilMemo memo, ItemStack left, ItemStack right) {
         // For enchanted books the enchantments are stored in STORED_ENCHANTMENTS
         ItemEnchantmentsComponent leftComp = left.getOrDefault(DataComponentTypes.STORED_ENCHANTMENTS, ItemEnchantmentsComponent.DEFAULT);
         ItemEnchantmentsComponent rightComp = right.getOrDefault(DataComponentTypes.STORED_ENCHANTMENTS, ItemEnchantmentsComponent.DEFAULT);
 
-        // Iterate recipes (stop at first match)
-        for (SpellRecipe recipe : ModSpellRegistry.getRecipes()) {
-            RegistryKey<Enchantment> leftKey = recipe.leftEnchantment;
-            RegistryKey<Enchantment> rightKey = recipe.rightEnchantment;
-
-            // Check both orders:
-            if ((hasEnchantment(leftComp, leftKey, recipe.leftLevel) && hasEnchantment(rightComp, rightKey, recipe.rightLevel))
-                    || (hasEnchantment(leftComp, rightKey, recipe.rightLevel) && hasEnchantment(rightComp, leftKey, recipe.leftLevel))) {
-
-                // Put the recipe result into the anvil output slot (slot index 2)
-                ItemStack resultStack = recipe.result.getDefaultStack();
-                // Set initial level to 1 for newly created spell tomes
-                resultStack.set(ModDataComponents.SPELL_LEVEL, 1);
-                self.getSlot(2).setStack(resultStack);
-
-                // Set displayed XP cost
-                this.levelCost.set(recipe.xpCost);
-
-                // Stop after first match
-                return;
-            }
+        // Look the pair up in the compiled recipe index (both slot orders are indexed)
+        PlayerEntity player = ((ForgingScreenHandlerAccessor) self).forgotten_knowledge$getPlayer();
+        Registry<Enchantment> enchantments = player.getRegistryManager().getOrThrow(RegistryKeys.ENCHANTMENT);
+        SpellRecipe recipe = SpellRecipeIndex.of(enchantments).match(leftComp, rightComp);
+        if (!player.getWorld().isClient()) {
+            SpellMetrics.countAnvilLookup(recipe != null);
         }
+        if (recipe == null) {
+            memo.store(left, right, ItemStack.EMPTY, 0);
+            return;
+        }
+
+        ItemStack resultStack = recipe.result.getDefaultStack();
+        // Set initial level to 1 for newly created spell tomes
+        resultStack.set(ModDataComponents.SPELL_LEVEL, 1);
+        memo.store(left, right, resultStack, recipe.xpCost);
     }
 
     /**
      * Handle upgrading spell tomes by combining two of the same type
      */
     @Unique
-    private void handleSpellTomeUpgrade(AnvilScreenHandler self, ItemStack left, ItemStack right) {
+    private void handleSpellTomeUpgrade(AnvilMemo memo, ItemStack left, ItemStack right) {
         int leftLevel = left.getOrDefault(ModDataComponents.SPELL_LEVEL, 1);
         int rightLevel = right.getOrDefault(ModDataComponents.SPELL_LEVEL, 1);
 
-        // Only allow upgrading if levels are the same (to prevent skipping levels)
-        if (leftLevel == rightLevel) {
+        // Only allow upgrading if levels are the same (to prevent skipping levels), and not past the cap
+        if (leftLevel == rightLevel && leftLevel < ModConfig.maxTomeLevel) {
             ItemStack resultStack = left.copy();
             int newLevel = leftLevel + 1;
             resultStack.set(ModDataComponents.SPELL_LEVEL, newLevel);
@@ -99,50 +133,9 @@ public abstract class AnvilScreenHandlerMixin {
             // Calculate XP cost for upgrading (scales with new level)
             int upgradeCost = 5 * newLevel; // Base cost of 5 per level
 
-            self.getSlot(2).setStack(resultStack);
-            this.levelCost.set(upgradeCost);
-        }
-    }
-
-    /**
-     * Check whether an ItemEnchantmentsComponent contains the given enchantment registry key
-     * at *at least* the required level.
-     */
-    @Unique
-    private static boolean hasEnchantment(ItemEnchantmentsComponent comp, RegistryKey<Enchantment> key, int requiredLevel) {
-        if (comp == null) return false;
-
-        for (Object2IntMap.Entry<RegistryEntry<Enchantment>> e : comp.getEnchantmentEntries()) {
-            RegistryEntry<Enchantment> regEntry = e.getKey();
-            int level = e.getIntValue();
-
-            Optional<RegistryKey<Enchantment>> k = regEntry.getKey();
-            if (k.isPresent() && k.get().equals(key) && level >= requiredLevel) {
-                return true;
-            }
+            memo.store(left, right, resultStack, upgradeCost);
+        } else {
+            memo.store(left, right, ItemStack.EMPTY, 0);
         }
-
-        return false;
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,15 @@
+package empegrail.forgotten_knowledge.mixin;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.screen.ForgingScreenHandler;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Exposes the player using an anvil (or any forging screen), for registry lookups.
+ */
+@Mixin(ForgingScreenHandler.class)
+public interface ForgingScreenHandlerAccessor {
+    @Accessor("player")
+    PlayerEntity forgotten_knowledge$getPlayer();
+}
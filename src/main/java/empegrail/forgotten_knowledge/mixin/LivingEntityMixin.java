@@ -1,19 +1,42 @@
 package empegrail.forgotten_knowledge.mixin;
 
 import empegrail.forgotten_knowledge.NecroticDeathTracker;
+import empegrail.forgotten_knowledge.state.SpellStateHolder;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.damage.DamageSource;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(LivingEntity.class)
-public class LivingEntityMixin {
+public class LivingEntityMixin implements SpellStateHolder {
+    // One slot per spell state store; null while no spell has marked this entity
+    @Unique
+    @Nullable
+    private Object[] forgotten_knowledge$spellStates;
+
+    @Override
+    public Object[] forgotten_knowledge$getSpellStates() {
+        return forgotten_knowledge$spellStates;
+    }
+
+    @Override
+    public void forgotten_knowledge$setSpellStates(Object[] states) {
+        forgotten_knowledge$spellStates = states;
+    }
 
     @Inject(method = "onDeath", at = @At("HEAD"))
     private void onDeath(DamageSource source, CallbackInfo ci) {
+        // Almost nothing that dies was ever touched by a spell
+        if (forgotten_knowledge$spellStates == null) return;
+
+        // The client replays deaths too; spell state only ever lives on the server side
         LivingEntity entity = (LivingEntity) (Object) this;
+        if (entity.getWorld().isClient()) return;
+
         NecroticDeathTracker.onEntityDeath(entity);
     }
-}
\ No newline at end of file
+}
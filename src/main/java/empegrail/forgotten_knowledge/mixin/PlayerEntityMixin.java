@@ -1,6 +1,7 @@
 package empegrail.forgotten_knowledge.mixin;
 
 import empegrail.forgotten_knowledge.SpellEffects;
+import empegrail.forgotten_knowledge.state.SpellStateHolder;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.world.ServerWorld;
@@ -16,6 +17,9 @@ public class PlayerEntityMixin {
     private void onDamage(ServerWorld world, DamageSource source, float amount, CallbackInfoReturnable<Boolean> cir) {
         PlayerEntity player = (PlayerEntity) (Object) this;
 
+        // No retribution (or any other spell state) on this player: nothing to do
+        if (!((SpellStateHolder) player).forgotten_knowledge$hasSpellState()) return;
+
         // Check if the damage comes from a living entity and retribution is active
         if (source.getAttacker() instanceof net.minecraft.entity.LivingEntity attacker) {
             boolean prevented = SpellEffects.RetributionManager.onPlayerAttacked(player, attacker, amount);
@@ -0,0 +1,34 @@
+package empegrail.forgotten_knowledge.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the spell part of one anvil result update.
+ */
+@Name("forgotten_knowledge.AnvilMatch")
+@Label("Spell Anvil Match")
+@Category({"Forgotten Knowledge", "Anvil"})
+@Description("Spell recipe or tome upgrade check when an anvil recomputes its output")
+@StackTrace(false)
+public final class AnvilMatchEvent extends Event {
+    @Label("Left Item")
+    public String left;
+
+    @Label("Right Item")
+    public String right;
+
+    @Label("Memo Hit")
+    @Description("Answered from the anvil's memo without matching")
+    public boolean memoHit;
+
+    @Label("Result")
+    public String result;
+
+    @Label("Client")
+    public boolean client;
+}
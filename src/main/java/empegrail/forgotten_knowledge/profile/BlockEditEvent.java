@@ -0,0 +1,32 @@
+package empegrail.forgotten_knowledge.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one batch of block changes applied by a SectionBatchWriter, whether straight from a
+ * spell or as one slice of a bulk edit job.
+ */
+@Name("forgotten_knowledge.BlockEdit")
+@Label("Spell Block Edit")
+@Category({"Forgotten Knowledge", "World"})
+@Description("A batch of spell block changes written to the world")
+@StackTrace(false)
+public final class BlockEditEvent extends Event {
+    @Label("Tome")
+    @Description("Tome whose spell caused the edit, if known")
+    public String tome;
+
+    @Label("World")
+    public String world;
+
+    @Label("Sections")
+    public int sections;
+
+    @Label("Blocks Changed")
+    public int blocks;
+}
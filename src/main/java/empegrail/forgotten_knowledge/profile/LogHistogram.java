@@ -0,0 +1,68 @@
+package empegrail.forgotten_knowledge.profile;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative longs in power-of-two buckets: bucket b holds values of bit length b, i.e.
+ * [2^(b-1), 2^b). 65 buckets cover every long, so recording never allocates or resizes.
+ *
+ * Percentiles are reported as the upper bound of their bucket (capped at the largest value seen), which is
+ * within a factor of two of the true value. That is plenty to tell a 50us cast from a 5ms one.
+ *
+ * Not thread-safe; each histogram belongs to the server thread.
+ */
+public final class LogHistogram {
+    private final long[] buckets = new long[65];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets[64 - Long.numberOfLeadingZeros(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Upper bound of the value below which the given fraction (0 to 1) of recorded values fall.
+     */
+    public long getPercentile(double fraction) {
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int b = 0; b < buckets.length; b++) {
+            seen += buckets[b];
+            if (seen >= rank) {
+                long upper = b == 0 ? 0 : b >= 63 ? Long.MAX_VALUE : (1L << b) - 1;
+                return Math.min(upper, max);
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+}
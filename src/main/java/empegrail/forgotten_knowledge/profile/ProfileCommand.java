@@ -0,0 +1,105 @@
+package empegrail.forgotten_knowledge.profile;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import empegrail.forgotten_knowledge.ModConfig;
+import empegrail.forgotten_knowledge.fx.SpellFx;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import empegrail.forgotten_knowledge.spell.AnvilMemo;
+import empegrail.forgotten_knowledge.state.SpellStateStore;
+import empegrail.forgotten_knowledge.state.SpellStates;
+import empegrail.forgotten_knowledge.world.BlockEditEngine;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * /forgottenknowledge profile [reset | top &lt;n&gt;]
+ *
+ * Shows the most expensive tomes from the {@link SpellProfiler}, followed by the counters of the spell
+ * subsystems (governor, scheduler, block edits, particles, anvil memo, spell state). Ops only.
+ */
+final class ProfileCommand {
+    private static final int DEFAULT_TOP = 5;
+
+    private ProfileCommand() {}
+
+    static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(CommandManager.literal("forgottenknowledge")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .then(CommandManager.literal("profile")
+                                .executes(context -> show(context.getSource(), DEFAULT_TOP))
+                                .then(CommandManager.literal("reset")
+                                        .executes(context -> reset(context.getSource())))
+                                .then(CommandManager.literal("top")
+                                        .then(CommandManager.argument("n", IntegerArgumentType.integer(1, 100))
+                                                .executes(context -> show(context.getSource(),
+                                                        IntegerArgumentType.getInteger(context, "n"))))))));
+    }
+
+    private static int reset(ServerCommandSource source) {
+        SpellProfiler.reset();
+        source.sendFeedback(() -> Text.literal("Spell profile reset"), true);
+        return 1;
+    }
+
+    private static int show(ServerCommandSource source, int top) {
+        List<SpellProfiler.Stats> stats = SpellProfiler.getTop(top);
+
+        if (stats.isEmpty()) {
+            send(source, "No spells cast since the last reset");
+        }
+        for (SpellProfiler.Stats s : stats) {
+            LogHistogram cast = s.getCastNanos();
+            LogHistogram phase = s.getPhaseNanos();
+            LogHistogram lag = s.getLagTicks();
+
+            send(source, String.format(Locale.ROOT, "%s: %d casts, %s total", s.getName(), s.getCasts(),
+                    formatNanos(s.getTotalNanos())));
+            send(source, String.format(Locale.ROOT, "  cast p50 %s, p99 %s, max %s",
+                    formatNanos(cast.getPercentile(0.5)), formatNanos(cast.getPercentile(0.99)),
+                    formatNanos(cast.getMax())));
+            if (phase.getCount() > 0) {
+                send(source, String.format(Locale.ROOT, "  %d phases p50 %s, p99 %s, max %s; lag p99 %d ticks, max %d",
+                        phase.getCount(), formatNanos(phase.getPercentile(0.5)),
+                        formatNanos(phase.getPercentile(0.99)), formatNanos(phase.getMax()),
+                        lag.getPercentile(0.99), lag.getMax()));
+            }
+            send(source, String.format(Locale.ROOT, "  %d blocks, %d entity queries, %d particles",
+                    s.getBlocks(), s.getEntityQueries(), s.getParticles()));
+        }
+
+        // Subsystem counters are since server start
+        send(source, String.format(Locale.ROOT, "Governor: last tick %s of %.1fms, %d waiting, %d deferred, %d timed",
+                formatNanos(SpellGovernor.getLastTickNanos()), ModConfig.spellWorkBudgetMillis,
+                SpellGovernor.getBacklogSize(), SpellGovernor.getDeferredWork(), SpellGovernor.getTimedWork()));
+        send(source, String.format(Locale.ROOT, "Scheduler: %d pending; block edits: %d running",
+                SpellScheduler.pendingTasks(), BlockEditEngine.activeJobs()));
+        send(source, String.format(Locale.ROOT, "Particles: %d requested, %d sent, %d payloads, %d dropped (%.1f mspt)",
+                SpellFx.getRequestedEmissions(), SpellFx.getSentEmissions(), SpellFx.getSentPayloads(),
+                SpellFx.getDroppedParticles(), SpellFx.getRollingMspt()));
+        send(source, String.format(Locale.ROOT, "Anvil memo: %d hits, %d misses",
+                AnvilMemo.getHits(), AnvilMemo.getMisses()));
+        for (SpellStateStore<?> store : SpellStates.getStores()) {
+            send(source, String.format(Locale.ROOT, "State %s: %d live, %d expired, %d removed",
+                    store.getName(), store.size(), store.getExpired(), store.getRemoved()));
+        }
+        return stats.size();
+    }
+
+    private static void send(ServerCommandSource source, String line) {
+        source.sendFeedback(() -> Text.literal(line), false);
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%dus", nanos / 1_000L);
+        }
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,40 @@
+package empegrail.forgotten_knowledge.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the synchronous part of one tome cast. Its delayed phases are {@link SpellPhaseEvent}s.
+ */
+@Name("forgotten_knowledge.SpellCast")
+@Label("Spell Cast")
+@Category({"Forgotten Knowledge", "Spells"})
+@Description("A spell tome being cast")
+@StackTrace(false)
+public final class SpellCastEvent extends Event {
+    @Label("Tome")
+    public String tome;
+
+    @Label("Level")
+    public int level;
+
+    @Label("Caster")
+    public String caster;
+
+    @Label("Performed")
+    @Description("Whether the spell actually did something")
+    public boolean performed;
+
+    @Label("Blocks Changed")
+    public long blocks;
+
+    @Label("Entity Queries")
+    public long entityQueries;
+
+    @Label("Particles")
+    public long particles;
+}
@@ -0,0 +1,34 @@
+package empegrail.forgotten_knowledge.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one delayed spell phase run by the scheduler.
+ */
+@Name("forgotten_knowledge.SpellPhase")
+@Label("Spell Phase")
+@Category({"Forgotten Knowledge", "Spells"})
+@Description("A scheduled phase of a spell (nova burst, fire wave ring, ...)")
+@StackTrace(false)
+public final class SpellPhaseEvent extends Event {
+    @Label("Tome")
+    public String tome;
+
+    @Label("Lag Ticks")
+    @Description("Ticks between when the phase was due and when it ran")
+    public long lagTicks;
+
+    @Label("Blocks Changed")
+    public long blocks;
+
+    @Label("Entity Queries")
+    public long entityQueries;
+
+    @Label("Particles")
+    public long particles;
+}
@@ -0,0 +1,183 @@
+package empegrail.forgotten_knowledge.profile;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-tome cost of spells: how long the synchronous cast takes, how long its delayed phases take and how
+ * late they run, and how many blocks, entity queries and particles it causes.
+ *
+ * Work is attributed through a "current spell" that is set while a cast or one of its phases runs. Phases
+ * scheduled and block edits submitted during that time remember it and put it back when they run later.
+ * Recording only bumps counters and histogram buckets; nothing is allocated after a tome's first cast.
+ *
+ * Everything here runs on the server thread.
+ *
+ * NOTE: Call SpellProfiler.register() once from the mod initializer.
+ */
+public final class SpellProfiler {
+    private static final Reference2ObjectOpenHashMap<Item, Stats> STATS = new Reference2ObjectOpenHashMap<>();
+
+    @Nullable private static Stats current;
+
+    private SpellProfiler() {}
+
+    public static void register() {
+        ProfileCommand.register();
+
+        // A profile describes one server run
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> reset());
+    }
+
+    /**
+     * Stats of the given tome, created on its first cast.
+     */
+    public static Stats forTome(Item tome) {
+        return STATS.computeIfAbsent(tome, SpellProfiler::create);
+    }
+
+    /**
+     * Stats that are not part of the profile, for measuring one piece of work (e.g. a replayed cast) alone.
+     */
+    public static Stats detached(String name) {
+        return new Stats(name);
+    }
+
+    private static Stats create(Item tome) {
+        return new Stats(Registries.ITEM.getId(tome).getPath());
+    }
+
+    @Nullable
+    public static Stats current() {
+        return current;
+    }
+
+    /**
+     * Make the given stats current and return the previous ones, to be passed to {@link #exit}.
+     */
+    @Nullable
+    public static Stats enter(@Nullable Stats stats) {
+        Stats previous = current;
+        current = stats;
+        return previous;
+    }
+
+    public static void exit(@Nullable Stats previous) {
+        current = previous;
+    }
+
+    public static void countBlocks(int blocks) {
+        if (current != null) current.blocks += blocks;
+    }
+
+    public static void countEntityQuery() {
+        if (current != null) current.entityQueries++;
+    }
+
+    public static void countParticles(int particles) {
+        if (current != null) current.particles += particles;
+    }
+
+    public static Collection<Stats> getStats() {
+        return STATS.values();
+    }
+
+    /**
+     * Stats sorted by total time spent (cast plus phases), most expensive first.
+     */
+    public static List<Stats> getTop(int limit) {
+        List<Stats> sorted = new ArrayList<>(STATS.values());
+        sorted.sort((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    public static void reset() {
+        for (Stats stats : STATS.values()) {
+            stats.reset();
+        }
+    }
+
+    public static final class Stats {
+        private final String name;
+        // Synchronous SpellEffect.cast, in nanoseconds
+        private final LogHistogram castNanos = new LogHistogram();
+        // Delayed phases (scheduled tasks and block edit slices), in nanoseconds
+        private final LogHistogram phaseNanos = new LogHistogram();
+        // Ticks between when a phase was due and when it ran
+        private final LogHistogram lagTicks = new LogHistogram();
+        private long casts;
+        private long blocks;
+        private long entityQueries;
+        private long particles;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        public void recordCast(long nanos, boolean performed) {
+            castNanos.record(nanos);
+            if (performed) casts++;
+        }
+
+        public void recordPhase(long nanos) {
+            phaseNanos.record(nanos);
+        }
+
+        public void recordLag(long ticks) {
+            lagTicks.record(ticks);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LogHistogram getCastNanos() {
+            return castNanos;
+        }
+
+        public LogHistogram getPhaseNanos() {
+            return phaseNanos;
+        }
+
+        public LogHistogram getLagTicks() {
+            return lagTicks;
+        }
+
+        public long getCasts() {
+            return casts;
+        }
+
+        public long getBlocks() {
+            return blocks;
+        }
+
+        public long getEntityQueries() {
+            return entityQueries;
+        }
+
+        public long getParticles() {
+            return particles;
+        }
+
+        public long getTotalNanos() {
+            return castNanos.getSum() + phaseNanos.getSum();
+        }
+
+        void reset() {
+            castNanos.reset();
+            phaseNanos.reset();
+            lagTicks.reset();
+            casts = 0;
+            blocks = 0;
+            entityQueries = 0;
+            particles = 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package empegrail.forgotten_knowledge.replay;
+
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One recorded cast, and the binary format of a recording.
+ *
+ * A recording is a header (magic, version, world seed) followed by one record per cast until the end of the
+ * file. Strings (tome ids, dimensions, caster names) are written once and referenced by index afterwards,
+ * so a typical cast takes about 100 bytes. The caster's UUID is kept so a replay can give every recorded
+ * caster a fake player of their own.
+ *
+ * Tome casts only raycast blocks, so the hit is always a block hit or a miss; both are stored exactly.
+ */
+record CastRecord(int tick, String tome, int level, String dimension, UUID casterId, String caster,
+                  double x, double y, double z, float yaw, float pitch, Hand hand,
+                  boolean hitBlock, Vec3d hitPos, BlockPos hitBlockPos, Direction hitSide, boolean insideBlock,
+                  long seed) {
+    private static final int MAGIC = 0x464B4352; // "FKCR"
+    private static final int VERSION = 2;
+
+    BlockHitResult hitResult() {
+        if (!hitBlock) {
+            return BlockHitResult.createMissed(hitPos, hitSide, hitBlockPos);
+        }
+        return new BlockHitResult(hitPos, hitSide, hitBlockPos, insideBlock);
+    }
+
+    static void writeHeader(DataOutput out, long worldSeed) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(worldSeed);
+    }
+
+    /**
+     * Reads the header and returns the world seed the recording was made in.
+     */
+    static long readHeader(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a cast recording");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cast recording version " + version);
+        }
+        return in.readLong();
+    }
+
+    void write(DataOutput out, Symbols symbols) throws IOException {
+        writeVarInt(out, tick);
+        symbols.write(out, tome);
+        writeVarInt(out, level);
+        symbols.write(out, dimension);
+        out.writeLong(casterId.getMostSignificantBits());
+        out.writeLong(casterId.getLeastSignificantBits());
+        symbols.write(out, caster);
+        out.writeDouble(x);
+        out.writeDouble(y);
+        out.writeDouble(z);
+        out.writeFloat(yaw);
+        out.writeFloat(pitch);
+        // Hand, hit type, side and insideBlock packed into one byte
+        out.writeByte(hand.ordinal() | (hitBlock ? 2 : 0) | (insideBlock ? 4 : 0) | hitSide.ordinal() << 3);
+        out.writeDouble(hitPos.x);
+        out.writeDouble(hitPos.y);
+        out.writeDouble(hitPos.z);
+        out.writeLong(hitBlockPos.asLong());
+        out.writeLong(seed);
+    }
+
+    static CastRecord read(DataInput in, Symbols symbols) throws IOException {
+        int tick = readVarInt(in);
+        String tome = symbols.read(in);
+        int level = readVarInt(in);
+        String dimension = symbols.read(in);
+        UUID casterId = new UUID(in.readLong(), in.readLong());
+        String caster = symbols.read(in);
+        double x = in.readDouble();
+        double y = in.readDouble();
+        double z = in.readDouble();
+        float yaw = in.readFloat();
+        float pitch = in.readFloat();
+        int flags = in.readUnsignedByte();
+        Vec3d hitPos = new Vec3d(in.readDouble(), in.readDouble(), in.readDouble());
+        BlockPos hitBlockPos = BlockPos.fromLong(in.readLong());
+        long seed = in.readLong();
+        return new CastRecord(tick, tome, level, dimension, casterId, caster, x, y, z, yaw, pitch,
+                Hand.values()[flags & 1], (flags & 2) != 0, hitPos, hitBlockPos,
+                Direction.values()[flags >>> 3], (flags & 4) != 0, seed);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    /**
+     * String table of one recording: index + 1 for a known string, 0 and the string for a new one.
+     */
+    static final class Symbols {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        void write(DataOutput out, String value) throws IOException {
+            Integer id = ids.get(value);
+            if (id != null) {
+                writeVarInt(out, id + 1);
+                return;
+            }
+            writeVarInt(out, 0);
+            out.writeUTF(value);
+            ids.put(value, strings.size());
+            strings.add(value);
+        }
+
+        String read(DataInput in) throws IOException {
+            int ref = readVarInt(in);
+            if (ref == 0) {
+                String value = in.readUTF();
+                strings.add(value);
+                return value;
+            }
+            if (ref > strings.size()) {
+                throw new IOException("Unknown string reference " + ref);
+            }
+            return strings.get(ref - 1);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package empegrail.forgotten_knowledge.replay;
+
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.HitResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Optional log of every tome cast, for replaying the same workload later with {@link CastReplay}.
+ *
+ * Started and stopped with /forgottenknowledge record. While it runs, each cast is appended to
+ * forgotten_knowledge/recordings/&lt;name&gt;.fkrec in the game directory (see {@link CastRecord} for the
+ * format). To make the cast reproducible, the world's random generator is reseeded from itself right
+ * before the spell runs and that seed is saved with the cast; a replay sets the same seed again. Delayed
+ * phases scheduled while recording or replaying draw a seed of their own at scheduling time and reseed
+ * the world's generator with it when they run (see {@link SpellScheduler}), so what vanilla consumes in
+ * between does not change them either. Bulk block edit slices are not reseeded; their operations do not
+ * use randomness.
+ *
+ * NOTE: Call CastRecorder.register() once from the mod initializer.
+ */
+public final class CastRecorder {
+    static final String EXTENSION = ".fkrec";
+
+    @Nullable private static Recording active;
+
+    private CastRecorder() {}
+
+    public static void register() {
+        ReplayCommand.register();
+        CastReplay.register();
+
+        // The recording ends with the server that made it
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> stop());
+    }
+
+    static Path directory() {
+        return FabricLoader.getInstance().getGameDir().resolve(ForgottenKnowledge.MOD_ID).resolve("recordings");
+    }
+
+    static Path file(String name) {
+        return directory().resolve(name + EXTENSION);
+    }
+
+    /**
+     * Names of the recordings on disk, for command suggestions.
+     */
+    static List<String> list() {
+        List<String> names = new ArrayList<>();
+        if (!Files.isDirectory(directory())) return names;
+
+        try (Stream<Path> files = Files.list(directory())) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .forEach(name -> names.add(name.substring(0, name.length() - EXTENSION.length())));
+        } catch (IOException e) {
+            ForgottenKnowledge.LOGGER.warn("Could not list cast recordings", e);
+        }
+        return names;
+    }
+
+    static void start(MinecraftServer server, String name) throws IOException {
+        stop();
+        Files.createDirectories(directory());
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file(name))));
+        CastRecord.writeHeader(out, server.getOverworld().getSeed());
+        active = new Recording(name, out, server.getTicks());
+    }
+
+    /**
+     * Whether delayed spell phases should pin down their randomness: a recording or a replay is running.
+     */
+    public static boolean isSeeding() {
+        return active != null || CastReplay.isRunning();
+    }
+
+    /**
+     * Finish the running recording. Returns how many casts it holds, or -1 if none was running.
+     */
+    static int stop() {
+        Recording recording = active;
+        if (recording == null) return -1;
+
+        active = null;
+        try {
+            recording.out.close();
+        } catch (IOException e) {
+            ForgottenKnowledge.LOGGER.warn("Could not finish cast recording {}", recording.name, e);
+        }
+        return recording.casts;
+    }
+
+    /**
+     * Called right before a tome's effect runs.
+     */
+    public static void record(ServerWorld world, PlayerEntity user, Hand hand, Item tome, int level, HitResult hit) {
+        Recording recording = active;
+        if (recording == null || !(hit instanceof BlockHitResult blockHit)) return;
+
+        long seed = world.random.nextLong();
+        world.random.setSeed(seed);
+
+        CastRecord cast = new CastRecord(
+                world.getServer().getTicks() - recording.startTick,
+                Registries.ITEM.getId(tome).toString(), level,
+                world.getRegistryKey().getValue().toString(), user.getUuid(), user.getGameProfile().getName(),
+                user.getX(), user.getY(), user.getZ(), user.getYaw(), user.getPitch(), hand,
+                blockHit.getType() == HitResult.Type.BLOCK, blockHit.getPos(), blockHit.getBlockPos(),
+                blockHit.getSide(), blockHit.isInsideBlock(), seed);
+        try {
+            cast.write(recording.out, recording.symbols);
+            recording.casts++;
+        } catch (IOException e) {
+            ForgottenKnowledge.LOGGER.error("Could not write to cast recording {}, stopping it", recording.name, e);
+            stop();
+        }
+    }
+
+    private static final class Recording {
+        final String name;
+        final DataOutputStream out;
+        final int startTick;
+        final CastRecord.Symbols symbols = new CastRecord.Symbols();
+        int casts;
+
+        Recording(String name, DataOutputStream out, int startTick) {
+            this.name = name;
+            this.out = out;
+            this.startTick = startTick;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package empegrail.forgotten_knowledge.replay;
+
+import com.mojang.authlib.GameProfile;
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import empegrail.forgotten_knowledge.ModDataComponents;
+import empegrail.forgotten_knowledge.SpellTomeItem;
+import empegrail.forgotten_knowledge.profile.LogHistogram;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import empegrail.forgotten_knowledge.world.BlockEditEngine;
+import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Plays a {@link CastRecorder} recording back on the current server, for comparing two builds on the same
+ * workload. Meant for a test world made from the recording's seed.
+ *
+ * Each cast runs at the same tick offset as it was recorded, in the same dimension, from the same pose and
+ * with the same hit and random seed, and its delayed phases get their recorded seeds back too. Each
+ * recorded caster is played by a fake player of the same name and a UUID of its own, derived from the
+ * caster's, so XP, recharge and admission checks are skipped and only the spell itself runs. Every cast
+ * gets its own detached profiler stats, so its delayed phases and block edits are charged to it; once all
+ * spell work has settled, the per-cast cost is reported in chat and written as CSV next to the recording.
+ */
+final class CastReplay {
+    // Give up waiting for the last phases and block edits after a minute
+    private static final int SETTLE_TIMEOUT_TICKS = 1200;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT);
+
+    @Nullable private static CastReplay running;
+
+    private final String name;
+    private final ServerCommandSource source;
+    private final List<CastRecord> casts;
+    private final SpellProfiler.Stats[] stats;
+    private final int startTick;
+    private int next;
+    private int skipped;
+
+    private CastReplay(String name, ServerCommandSource source, List<CastRecord> casts, int startTick) {
+        this.name = name;
+        this.source = source;
+        this.casts = casts;
+        this.stats = new SpellProfiler.Stats[casts.size()];
+        this.startTick = startTick;
+    }
+
+    static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (running != null) running.tick(server);
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> running = null);
+    }
+
+    static boolean isRunning() {
+        return running != null;
+    }
+
+    /**
+     * Load the recording and start playing it from the next tick. Returns the number of casts.
+     */
+    static int start(ServerCommandSource source, String name) throws IOException {
+        List<CastRecord> casts = new ArrayList<>();
+        long seed;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(CastRecorder.file(name))))) {
+            seed = CastRecord.readHeader(in);
+            CastRecord.Symbols symbols = new CastRecord.Symbols();
+            while (true) {
+                try {
+                    casts.add(CastRecord.read(in, symbols));
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+
+        MinecraftServer server = source.getServer();
+        if (server.getOverworld().getSeed() != seed) {
+            source.sendFeedback(() -> Text.literal("Warning: recording " + name + " was made in a world with seed "
+                    + seed + "; results may differ"), false);
+        }
+        running = new CastReplay(name, source, casts, server.getTicks());
+        return casts.size();
+    }
+
+    private void tick(MinecraftServer server) {
+        int now = server.getTicks() - startTick;
+        while (next < casts.size() && casts.get(next).tick() <= now) {
+            replay(server, next++);
+        }
+        if (next < casts.size()) return;
+
+        // Wait for delayed phases and bulk edits of the last casts before reporting
+        int sinceLast = casts.isEmpty() ? now : now - casts.get(casts.size() - 1).tick();
+        boolean settled = SpellScheduler.pendingTasks() == 0 && BlockEditEngine.activeJobs() == 0
+                && SpellGovernor.getBacklogSize() == 0;
+        if (settled || sinceLast > SETTLE_TIMEOUT_TICKS) {
+            running = null;
+            finish(!settled);
+        }
+    }
+
+    private void replay(MinecraftServer server, int index) {
+        CastRecord cast = casts.get(index);
+        Identifier dimension = Identifier.tryParse(cast.dimension());
+        Identifier tomeId = Identifier.tryParse(cast.tome());
+        ServerWorld world = dimension != null ? server.getWorld(RegistryKey.of(RegistryKeys.WORLD, dimension)) : null;
+        Item item = tomeId != null ? Registries.ITEM.get(tomeId) : null;
+        if (world == null || !(item instanceof SpellTomeItem tome)) {
+            skipped++;
+            return;
+        }
+
+        // One fake player per recorded caster, so flight, marks, backlog and task ownership stay per caster. Its
+        // UUID is derived from the caster's, so it shares none of that with the real player if they are online.
+        UUID id = UUID.nameUUIDFromBytes(("replay:" + cast.casterId()).getBytes(StandardCharsets.UTF_8));
+        FakePlayer player = FakePlayer.get(world, new GameProfile(id, cast.caster()));
+        player.refreshPositionAndAngles(cast.x(), cast.y(), cast.z(), cast.yaw(), cast.pitch());
+        ItemStack stack = new ItemStack(tome);
+        stack.set(ModDataComponents.SPELL_LEVEL, cast.level());
+        player.setStackInHand(cast.hand(), stack);
+        world.random.setSeed(cast.seed());
+
+        SpellProfiler.Stats castStats = SpellProfiler.detached(tomeId.getPath());
+        stats[index] = castStats;
+        SpellProfiler.Stats previous = SpellProfiler.enter(castStats);
+        long start = System.nanoTime();
+        boolean performed = false;
+        try {
+            performed = tome.getEffect().cast(world, player, cast.hand(), stack, cast.hitResult());
+        } catch (RuntimeException e) {
+            ForgottenKnowledge.LOGGER.error("Replayed cast {} of {} failed", index, name, e);
+        } finally {
+            castStats.recordCast(System.nanoTime() - start, performed);
+            SpellProfiler.exit(previous);
+        }
+    }
+
+    private void finish(boolean timedOut) {
+        LogHistogram totals = new LogHistogram();
+        int worst = -1;
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i] == null) continue;
+            long total = stats[i].getTotalNanos();
+            totals.record(total);
+            if (worst < 0 || total > stats[worst].getTotalNanos()) worst = i;
+        }
+
+        String summary = String.format(Locale.ROOT,
+                "Replayed %d of %d casts from %s: %.2fms total, p50 %.2fms, p99 %.2fms, max %.2fms",
+                totals.getCount(), casts.size(), name, totals.getSum() / 1e6,
+                totals.getPercentile(0.5) / 1e6, totals.getPercentile(0.99) / 1e6, totals.getMax() / 1e6);
+        source.sendFeedback(() -> Text.literal(summary), true);
+        if (worst >= 0) {
+            CastRecord cast = casts.get(worst);
+            String line = String.format(Locale.ROOT, "Most expensive: #%d %s level %d at tick %d (%.2fms)",
+                    worst, cast.tome(), cast.level(), cast.tick(), stats[worst].getTotalNanos() / 1e6);
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        if (skipped > 0) {
+            source.sendFeedback(() -> Text.literal(skipped + " casts skipped (unknown tome or dimension)"), false);
+        }
+        if (timedOut) {
+            source.sendFeedback(() -> Text.literal("Spell work was still running when the replay gave up waiting"), false);
+        }
+
+        Path report = CastRecorder.directory().resolve(name + ".replay-" + LocalDateTime.now().format(STAMP) + ".csv");
+        try {
+            writeReport(report);
+            source.sendFeedback(() -> Text.literal("Per-cast costs written to " + report.getFileName()), false);
+        } catch (IOException e) {
+            ForgottenKnowledge.LOGGER.warn("Could not write replay report {}", report, e);
+        }
+    }
+
+    private void writeReport(Path report) throws IOException {
+        try (Writer out = Files.newBufferedWriter(report)) {
+            out.write("cast,tick,tome,level,caster,cast_us,phase_us,total_us,blocks,entity_queries,particles\n");
+            for (int i = 0; i < stats.length; i++) {
+                SpellProfiler.Stats s = stats[i];
+                if (s == null) continue;
+                CastRecord cast = casts.get(i);
+                out.write(String.format(Locale.ROOT, "%d,%d,%s,%d,%s,%d,%d,%d,%d,%d,%d%n",
+                        i, cast.tick(), cast.tome(), cast.level(), cast.caster(),
+                        s.getCastNanos().getSum() / 1000, s.getPhaseNanos().getSum() / 1000, s.getTotalNanos() / 1000,
+                        s.getBlocks(), s.getEntityQueries(), s.getParticles()));
+            }
+        }
+    }
+}
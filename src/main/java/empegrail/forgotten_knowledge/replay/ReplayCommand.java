@@ -0,0 +1,96 @@
+package empegrail.forgotten_knowledge.replay;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.command.CommandSource;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * /forgottenknowledge record start [name] | record stop | replay &lt;name&gt;
+ *
+ * Ops only. Recordings live in forgotten_knowledge/recordings in the game directory.
+ */
+final class ReplayCommand {
+    private static final DateTimeFormatter DEFAULT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT);
+
+    private ReplayCommand() {}
+
+    static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(CommandManager.literal("forgottenknowledge")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .then(CommandManager.literal("record")
+                                .then(CommandManager.literal("start")
+                                        .executes(context -> startRecording(context.getSource(),
+                                                LocalDateTime.now().format(DEFAULT_NAME)))
+                                        .then(CommandManager.argument("name", StringArgumentType.word())
+                                                .executes(context -> startRecording(context.getSource(),
+                                                        StringArgumentType.getString(context, "name")))))
+                                .then(CommandManager.literal("stop")
+                                        .executes(context -> stopRecording(context.getSource()))))
+                        .then(CommandManager.literal("replay")
+                                .then(CommandManager.argument("name", StringArgumentType.word())
+                                        .suggests((context, builder) ->
+                                                CommandSource.suggestMatching(CastRecorder.list(), builder))
+                                        .executes(context -> replay(context.getSource(),
+                                                StringArgumentType.getString(context, "name")))))));
+    }
+
+    private static int startRecording(ServerCommandSource source, String name) {
+        if (!isValidName(name)) {
+            source.sendError(Text.literal("Recording names may only use letters, digits, _ and -"));
+            return 0;
+        }
+        try {
+            CastRecorder.start(source.getServer(), name);
+        } catch (IOException e) {
+            source.sendError(Text.literal("Could not start recording " + name + ": " + e.getMessage()));
+            return 0;
+        }
+        source.sendFeedback(() -> Text.literal("Recording casts to " + name), true);
+        return 1;
+    }
+
+    private static int stopRecording(ServerCommandSource source) {
+        int casts = CastRecorder.stop();
+        if (casts < 0) {
+            source.sendError(Text.literal("No recording is running"));
+            return 0;
+        }
+        source.sendFeedback(() -> Text.literal("Recording stopped after " + casts + " casts"), true);
+        return casts;
+    }
+
+    private static int replay(ServerCommandSource source, String name) {
+        if (!isValidName(name) || !Files.exists(CastRecorder.file(name))) {
+            source.sendError(Text.literal("No recording named " + name));
+            return 0;
+        }
+        if (CastReplay.isRunning()) {
+            source.sendError(Text.literal("A replay is already running"));
+            return 0;
+        }
+
+        int casts;
+        try {
+            casts = CastReplay.start(source, name);
+        } catch (IOException e) {
+            source.sendError(Text.literal("Could not read recording " + name + ": " + e.getMessage()));
+            return 0;
+        }
+        source.sendFeedback(() -> Text.literal("Replaying " + casts + " casts from " + name), true);
+        return casts;
+    }
+
+    private static boolean isValidName(String name) {
+        return name.matches("[A-Za-z0-9_-]+");
+    }
+}
@@ -0,0 +1,117 @@
+package empegrail.forgotten_knowledge.scheduler;
+
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import empegrail.forgotten_knowledge.profile.SpellPhaseEvent;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Handle for a piece of work queued on the {@link SpellScheduler}.
+ *
+ * A task runs at most once. Cancelling it before it runs invokes its cancel action instead, so effects
+ * can undo anything they granted up front (e.g. temporary flight).
+ *
+ * When its tick comes, the task is handed to the {@link SpellGovernor}, which may hold it back a few ticks
+ * if spell work is over budget. It can still be cancelled while it waits there.
+ */
+public final class ScheduledTask {
+    private final TimingWheel wheel;
+    private final Runnable action;
+    @Nullable private final Runnable onCancel;
+    @Nullable private final UUID owner;
+    // Spell that scheduled the task, so the profiler can charge the phase to it
+    @Nullable private final SpellProfiler.Stats stats;
+    final long dueTick;
+    private boolean done;
+    // Left the wheel and is running or waiting in the governor's backlog
+    private boolean fired;
+
+    ScheduledTask(TimingWheel wheel, long dueTick, @Nullable UUID owner, Runnable action, @Nullable Runnable onCancel) {
+        this.wheel = wheel;
+        this.dueTick = dueTick;
+        this.owner = owner;
+        this.action = action;
+        this.onCancel = onCancel;
+        this.stats = SpellProfiler.current();
+    }
+
+    @Nullable
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public long getDueTick() {
+        return dueTick;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Cancel the task if it has not run yet. Returns true when this call actually cancelled it.
+     */
+    public boolean cancel() {
+        if (done) return false;
+        done = true;
+        if (!fired) {
+            wheel.onCancelled();
+        }
+
+        if (onCancel != null) {
+            try {
+                onCancel.run();
+            } catch (RuntimeException e) {
+                ForgottenKnowledge.LOGGER.error("Cancel action of scheduled spell task failed", e);
+            }
+        }
+        return true;
+    }
+
+    // Called by the wheel once the due tick has been reached
+    void fire() {
+        fired = true;
+        SpellGovernor.submit(owner, this::run, this::cancel);
+    }
+
+    private void run() {
+        // Cancelled while waiting for budget
+        if (done) return;
+        done = true;
+
+        SpellProfiler.Stats previous = SpellProfiler.enter(stats);
+        // Late by however long the governor held it back
+        long lag = wheel.getCurrentTick() - dueTick;
+        long blocksBefore = stats != null ? stats.getBlocks() : 0;
+        long queriesBefore = stats != null ? stats.getEntityQueries() : 0;
+        long particlesBefore = stats != null ? stats.getParticles() : 0;
+        SpellPhaseEvent event = new SpellPhaseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            ForgottenKnowledge.LOGGER.error("Scheduled spell task failed", e);
+        } finally {
+            if (stats != null) {
+                stats.recordLag(lag);
+                stats.recordPhase(System.nanoTime() - start);
+            }
+            SpellProfiler.exit(previous);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.lagTicks = lag;
+                if (stats != null) {
+                    event.tome = stats.getName();
+                    event.blocks = stats.getBlocks() - blocksBefore;
+                    event.entityQueries = stats.getEntityQueries() - queriesBefore;
+                    event.particles = stats.getParticles() - particlesBefore;
+                }
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package empegrail.forgotten_knowledge.scheduler;
+
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import empegrail.forgotten_knowledge.ModConfig;
+import empegrail.forgotten_knowledge.state.SpellServerState;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Caps how much server time spell work may take per tick, across all players.
+ *
+ * Every cast and every scheduled spell phase is timed. Once ModConfig.spellWorkBudgetMillis is used up for
+ * the tick, further work is put in a backlog per player instead of running. At the start of the next tick
+ * the backlog is worked off first, one item per player in turn, until the budget is used up again. Work is
+ * only ever delayed, never dropped (unless its owner leaves or dies), and at least one item runs per tick.
+ *
+ * The budget and backlog belong to the running server's {@link SpellServerState} and may only be touched
+ * from its thread.
+ *
+ * NOTE: Call SpellGovernor.register() once from the mod initializer.
+ */
+public final class SpellGovernor {
+    // Work without an owner takes its turn like a player
+    private static final UUID NO_OWNER = new UUID(0L, 0L);
+
+    private SpellGovernor() {}
+
+    public static void register() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            State state = SpellServerState.of(server).getGovernor();
+            state.lastTickNanos = state.spentNanos;
+            state.spentNanos = 0;
+            drainBacklog(state);
+        });
+    }
+
+    // Budget and backlog of the running server, from its owning thread only
+    private static State state() {
+        SpellServerState server = SpellServerState.find();
+        if (server == null) {
+            throw new IllegalStateException("Spell work outside of a running server");
+        }
+        return server.getGovernor();
+    }
+
+    /**
+     * True if work for this owner may run right now: there is budget left and nothing of theirs is waiting.
+     */
+    public static boolean canRunNow(@Nullable UUID owner) {
+        return state().spentNanos < budgetNanos() && !hasBacklog(owner);
+    }
+
+    public static boolean hasBacklog(@Nullable UUID owner) {
+        return state().backlog.containsKey(owner != null ? owner : NO_OWNER);
+    }
+
+    /**
+     * Run the work now and charge its time to this tick's budget.
+     */
+    public static boolean time(BooleanSupplier work) {
+        State state = state();
+        long start = System.nanoTime();
+        try {
+            return work.getAsBoolean();
+        } finally {
+            state.spentNanos += System.nanoTime() - start;
+            state.timedWork++;
+        }
+    }
+
+    /**
+     * Put the work at the end of the owner's backlog. If the owner leaves or dies before it runs, onCancel
+     * runs instead.
+     */
+    public static void defer(@Nullable UUID owner, Runnable work, @Nullable Runnable onCancel) {
+        State state = state();
+        UUID key = owner != null ? owner : NO_OWNER;
+        ArrayDeque<Deferred> queue = state.backlog.get(key);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            state.backlog.put(key, queue);
+            state.turns.add(key);
+        }
+        queue.add(new Deferred(work, onCancel));
+        state.backlogSize++;
+        state.deferredWork++;
+    }
+
+    /**
+     * Run the work now if the budget allows, otherwise defer it.
+     */
+    public static void submit(@Nullable UUID owner, Runnable work, @Nullable Runnable onCancel) {
+        if (canRunNow(owner)) {
+            time(() -> {
+                work.run();
+                return true;
+            });
+        } else {
+            defer(owner, work, onCancel);
+        }
+    }
+
+    /**
+     * Drop the owner's backlog, running the cancel actions.
+     */
+    public static int cancelOwnedBy(UUID owner) {
+        State state = state();
+        ArrayDeque<Deferred> queue = state.backlog.remove(owner);
+        if (queue == null) return 0;
+
+        state.turns.remove(owner);
+        state.backlogSize -= queue.size();
+        queue.forEach(Deferred::cancel);
+        return queue.size();
+    }
+
+    private static void drainBacklog(State state) {
+        long budget = budgetNanos();
+        boolean first = true;
+
+        // Round-robin: one item per owner per turn. The first item always runs so the backlog keeps moving.
+        while (!state.turns.isEmpty() && (first || state.spentNanos < budget)) {
+            first = false;
+            UUID owner = state.turns.poll();
+            ArrayDeque<Deferred> queue = state.backlog.get(owner);
+            Deferred next = queue.poll();
+            state.backlogSize--;
+
+            if (queue.isEmpty()) {
+                state.backlog.remove(owner);
+            } else {
+                state.turns.add(owner);
+            }
+
+            time(() -> {
+                try {
+                    next.work.run();
+                } catch (RuntimeException e) {
+                    ForgottenKnowledge.LOGGER.error("Deferred spell work failed", e);
+                }
+                return true;
+            });
+        }
+    }
+
+    private static long budgetNanos() {
+        return (long) (ModConfig.spellWorkBudgetMillis * 1_000_000L);
+    }
+
+    /**
+     * Whether work expected to take the given time fits in what is left of this tick's budget. Work longer
+     * than a whole budget fits any tick that has not spent anything yet.
+     */
+    public static boolean hasRoomFor(long nanos) {
+        long budget = budgetNanos();
+        return state().spentNanos + Math.min(nanos, budget) <= budget;
+    }
+
+    /**
+     * Nanoseconds of budget left in this tick; 0 once it is used up.
+     */
+    public static long getRemainingNanos() {
+        return Math.max(0, budgetNanos() - state().spentNanos);
+    }
+
+    /**
+     * Nanoseconds of spell work in the last completed tick.
+     */
+    public static long getLastTickNanos() {
+        SpellServerState server = SpellServerState.find();
+        return server != null ? server.getGovernor().lastTickNanos : 0;
+    }
+
+    public static int getBacklogSize() {
+        SpellServerState server = SpellServerState.find();
+        return server != null ? server.getGovernor().backlogSize : 0;
+    }
+
+    public static long getDeferredWork() {
+        SpellServerState server = SpellServerState.find();
+        return server != null ? server.getGovernor().deferredWork : 0;
+    }
+
+    public static long getTimedWork() {
+        SpellServerState server = SpellServerState.find();
+        return server != null ? server.getGovernor().timedWork : 0;
+    }
+
+    /**
+     * Budget and backlog of one server. Lives in its {@link SpellServerState}, which tears it down when the
+     * server stops.
+     */
+    public static final class State {
+        private final Map<UUID, ArrayDeque<Deferred>> backlog = new HashMap<>();
+        // Owners with a backlog, in the order they get their next turn
+        private final ArrayDeque<UUID> turns = new ArrayDeque<>();
+
+        private long spentNanos;
+        private long lastTickNanos;
+        private int backlogSize;
+
+        // Lifetime counters
+        private long deferredWork;
+        private long timedWork;
+
+        /**
+         * Whatever is left gets its cancel action, like tasks still in the scheduler.
+         */
+        public void close() {
+            List<Deferred> left = new ArrayList<>();
+            backlog.values().forEach(left::addAll);
+            backlog.clear();
+            turns.clear();
+            backlogSize = 0;
+            left.forEach(Deferred::cancel);
+        }
+    }
+
+    private record Deferred(Runnable work, @Nullable Runnable onCancel) {
+        void cancel() {
+            if (onCancel != null) {
+                onCancel.run();
+            }
+        }
+    }
+}
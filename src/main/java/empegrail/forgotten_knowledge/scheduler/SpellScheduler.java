@@ -0,0 +1,88 @@
+package empegrail.forgotten_knowledge.scheduler;
+
+import empegrail.forgotten_knowledge.replay.CastRecorder;
+import empegrail.forgotten_knowledge.state.SpellServerState;
+import empegrail.forgotten_knowledge.state.SpellWorldState;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Server-tick scheduler for delayed spell phases.
+ *
+ * Replaces the old "server.execute + Thread.sleep" pattern: effects say "run this N ticks from now" and the
+ * work is picked up at the end of the owning world's tick, without ever blocking the server thread.
+ * Tasks owned by a player are cancelled when that player dies or disconnects.
+ *
+ * Each world's wheel lives in its {@link SpellWorldState}, which advances it and cancels whatever is left
+ * when the server stops.
+ *
+ * NOTE: Call SpellScheduler.register() once from the mod initializer.
+ */
+public final class SpellScheduler {
+    private SpellScheduler() {}
+
+    public static void register() {
+        // Casters that leave or die take their pending spell phases with them
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) ->
+                cancelOwnedBy(server, handler.getPlayer().getUuid()));
+        ServerLivingEntityEvents.AFTER_DEATH.register((entity, source) -> {
+            if (entity instanceof ServerPlayerEntity player && player.getWorld() instanceof ServerWorld world) {
+                cancelOwnedBy(world.getServer(), player.getUuid());
+            }
+        });
+    }
+
+    /**
+     * Run the action after the given number of ticks of this world.
+     */
+    public static ScheduledTask schedule(ServerWorld world, @Nullable Entity owner, int delayTicks, Runnable action) {
+        return schedule(world, owner, delayTicks, action, null);
+    }
+
+    /**
+     * Run the action after the given number of ticks of this world. If the task is cancelled first (owner died,
+     * logged out or the server stopped), onCancel runs instead.
+     */
+    public static ScheduledTask schedule(ServerWorld world, @Nullable Entity owner, int delayTicks,
+                                         Runnable action, @Nullable Runnable onCancel) {
+        TimingWheel wheel = SpellWorldState.of(world).getScheduler();
+        // While casts are recorded or replayed, the phase runs with a seed drawn now, when the world's
+        // generator is still in the state the (seeded) cast left it in
+        if (CastRecorder.isSeeding()) {
+            long seed = world.random.nextLong();
+            Runnable unseeded = action;
+            action = () -> {
+                world.random.setSeed(seed);
+                unseeded.run();
+            };
+        }
+        return wheel.add(delayTicks, owner != null ? owner.getUuid() : null, action, onCancel);
+    }
+
+    public static int cancelOwnedBy(MinecraftServer server, UUID owner) {
+        // Phases already due but held back by the governor go too
+        int cancelled = SpellGovernor.cancelOwnedBy(owner);
+        for (SpellWorldState world : SpellServerState.of(server).getWorlds()) {
+            cancelled += world.getScheduler().cancelOwnedBy(owner);
+        }
+        return cancelled;
+    }
+
+    public static int pendingTasks() {
+        SpellServerState server = SpellServerState.find();
+        if (server == null) return 0;
+
+        int pending = 0;
+        for (SpellWorldState world : server.getWorlds()) {
+            pending += world.getScheduler().pending();
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,137 @@
+package empegrail.forgotten_knowledge.scheduler;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hashed timing wheel for a single world.
+ *
+ * Tasks are bucketed by (due tick & MASK). Each tick only the current bucket is visited, so scheduling and
+ * firing are O(1) no matter how many tasks are pending. Tasks further away than one revolution simply stay
+ * in their bucket until the wheel comes around to their due tick.
+ *
+ * Each wheel belongs to a {@link empegrail.forgotten_knowledge.state.SpellWorldState}, which creates, advances
+ * and tears it down; queueing work goes through {@link SpellScheduler}.
+ */
+public final class TimingWheel {
+    private static final int SLOTS = 256; // must be a power of two
+    private static final int MASK = SLOTS - 1;
+
+    private final ArrayDeque<ScheduledTask>[] slots;
+    private long currentTick;
+    // Set from the start of the world's tick until the wheel is advanced at its end
+    private boolean ticking;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick) {
+        this.slots = new ArrayDeque[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.currentTick = startTick;
+    }
+
+    ScheduledTask add(int delayTicks, @Nullable UUID owner, Runnable action, @Nullable Runnable onCancel) {
+        // While the world ticks, the tick in progress is the one after the last we advanced to. Counting from
+        // there, a delay of 1 means the next tick rather than the end of this one; a delay of 0 is treated as 1
+        long now = ticking ? currentTick + 1 : currentTick;
+        long due = now + Math.max(1, delayTicks);
+        ScheduledTask task = new ScheduledTask(this, due, owner, action, onCancel);
+        slots[(int) (due & MASK)].add(task);
+        pending++;
+        return task;
+    }
+
+    /**
+     * Last tick the wheel was advanced to.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * The world has started its next tick; work scheduled from now on counts its delay from that tick.
+     */
+    public void beginTick() {
+        ticking = true;
+    }
+
+    /**
+     * Fire everything that is due up to and including the given tick.
+     */
+    public void advanceTo(long tick) {
+        ticking = false;
+
+        // After a large jump one revolution is enough to visit every bucket once
+        if (tick - currentTick > SLOTS) {
+            currentTick = tick - SLOTS;
+        }
+
+        while (currentTick < tick) {
+            currentTick++;
+            ArrayDeque<ScheduledTask> slot = slots[(int) (currentTick & MASK)];
+
+            // Only look at what was queued before this tick; tasks scheduled by the tasks we run wait for later
+            for (int i = slot.size(); i > 0; i--) {
+                ScheduledTask task = slot.poll();
+                if (task.isDone()) continue; // cancelled, already uncounted
+
+                if (task.dueTick > tick) {
+                    // Belongs to a later revolution
+                    slot.add(task);
+                    continue;
+                }
+
+                pending--;
+                task.fire();
+            }
+        }
+    }
+
+    /**
+     * Cancel every pending task owned by the given UUID.
+     */
+    int cancelOwnedBy(UUID owner) {
+        if (pending == 0) return 0;
+
+        // Collect first: cancel actions are allowed to schedule new work
+        List<ScheduledTask> owned = new ArrayList<>();
+        for (ArrayDeque<ScheduledTask> slot : slots) {
+            for (ScheduledTask task : slot) {
+                if (!task.isDone() && owner.equals(task.getOwner())) {
+                    owned.add(task);
+                }
+            }
+        }
+
+        int cancelled = 0;
+        for (ScheduledTask task : owned) {
+            if (task.cancel()) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    public void cancelAll() {
+        for (ArrayDeque<ScheduledTask> slot : slots) {
+            ScheduledTask task;
+            while ((task = slot.poll()) != null) {
+                task.cancel();
+            }
+        }
+    }
+
+    void onCancelled() {
+        pending--;
+    }
+
+    public int pending() {
+        return pending;
+    }
+}
@@ -0,0 +1,86 @@
+package empegrail.forgotten_knowledge.spell;
+
+import net.minecraft.component.ComponentChanges;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the spell result of one anvil for its last pair of inputs.
+ *
+ * The anvil recomputes its output on every slot click and rename keystroke. Usually the input stacks have
+ * not changed, and then the previous answer (including "no spell result") is reused without matching
+ * recipes or copying stacks again.
+ *
+ * Inputs are fingerprinted by item, count and component changes. Reading the changes does not copy
+ * them: the stack switches to copy-on-write, so a stored fingerprint never changes under us.
+ */
+public final class AnvilMemo {
+    // Shared by every anvil on both the client and the server thread
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private InputKey left;
+    private InputKey right;
+    private int recipeGeneration;
+    private ItemStack result = ItemStack.EMPTY;
+    private int cost;
+
+    /**
+     * Whether the stored answer is for exactly these inputs.
+     */
+    public boolean matches(ItemStack leftStack, ItemStack rightStack) {
+        // A datapack reload may have changed what the inputs make
+        boolean hit = left != null && recipeGeneration == SpellRecipeIndex.getGeneration()
+                && left.matches(leftStack) && right.matches(rightStack);
+        (hit ? HITS : MISSES).increment();
+        return hit;
+    }
+
+    /**
+     * Remember the answer for these inputs. Pass ItemStack.EMPTY when no spell result applies.
+     */
+    public void store(ItemStack leftStack, ItemStack rightStack, ItemStack result, int cost) {
+        this.left = InputKey.of(leftStack);
+        this.right = InputKey.of(rightStack);
+        this.recipeGeneration = SpellRecipeIndex.getGeneration();
+        this.result = result;
+        this.cost = cost;
+    }
+
+    /**
+     * Forget the answer, e.g. once its result stack has been handed to the player.
+     */
+    public void invalidate() {
+        left = null;
+        right = null;
+        result = ItemStack.EMPTY;
+    }
+
+    public ItemStack getResult() {
+        return result;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    private record InputKey(Item item, int count, ComponentChanges changes) {
+        static InputKey of(ItemStack stack) {
+            return new InputKey(stack.getItem(), stack.getCount(), stack.getComponentChanges());
+        }
+
+        boolean matches(ItemStack stack) {
+            return item == stack.getItem() && count == stack.getCount() && changes.equals(stack.getComponentChanges());
+        }
+    }
+}
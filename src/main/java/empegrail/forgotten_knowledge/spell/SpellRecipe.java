@@ -1,8 +1,13 @@
 package empegrail.forgotten_knowledge.spell;
 
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
 import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.util.dynamic.Codecs;
 
 /**
  * Simple value container for a single anvil -> spell recipe.
@@ -11,8 +16,21 @@ import net.minecraft.registry.RegistryKey;
  * rightEnchantment/rightLevel = same for the RIGHT book
  * result                      = Item to place in anvil result slot (your tome Item)
  * xpCost                      = anvil level cost to show for the operation
+ *
+ * In a datapack (data/<namespace>/spell_recipes/<name>.json) the same fields are written as
+ * left_enchantment, left_level, right_enchantment, right_level, result and xp_cost.
+ * Levels default to 1 and xp_cost to 5.
  */
 public class SpellRecipe {
+    public static final Codec<SpellRecipe> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            RegistryKey.createCodec(RegistryKeys.ENCHANTMENT).fieldOf("left_enchantment").forGetter(r -> r.leftEnchantment),
+            Codecs.POSITIVE_INT.optionalFieldOf("left_level", 1).forGetter(r -> r.leftLevel),
+            RegistryKey.createCodec(RegistryKeys.ENCHANTMENT).fieldOf("right_enchantment").forGetter(r -> r.rightEnchantment),
+            Codecs.POSITIVE_INT.optionalFieldOf("right_level", 1).forGetter(r -> r.rightLevel),
+            Registries.ITEM.getCodec().fieldOf("result").forGetter(r -> r.result),
+            Codecs.NON_NEGATIVE_INT.optionalFieldOf("xp_cost", 5).forGetter(r -> r.xpCost)
+    ).apply(instance, SpellRecipe::new));
+
     public final RegistryKey<Enchantment> leftEnchantment;
     public final int leftLevel;
     public final RegistryKey<Enchantment> rightEnchantment;
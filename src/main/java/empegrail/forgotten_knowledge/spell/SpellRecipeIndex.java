@@ -0,0 +1,141 @@
+package empegrail.forgotten_knowledge.spell;
+
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.component.type.ItemEnchantmentsComponent;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Spell recipes compiled for the anvil.
+ *
+ * Each recipe's enchantment keys are resolved to registry entries once. The recipe is then filed under
+ * the enchantment it needs on the left book, together with what the right book must carry, in both slot
+ * orders. Matching walks the enchantments on the left book and does one component lookup per
+ * candidate, no matter how many recipes exist.
+ *
+ * Registry entries belong to one registry manager (the client and the integrated server each have
+ * their own), so there is one index per enchantment registry, built on first use. The loaded recipes and
+ * their indexes form one {@link RecipeSet}; a reload builds a new set and swaps it in with a single
+ * volatile write, so a lookup always sees one complete set.
+ */
+public final class SpellRecipeIndex {
+    private static volatile RecipeSet current = new RecipeSet(List.of(), 0);
+
+    // Recipes keyed by the enchantment entry they need on the left book
+    private final Map<RegistryEntry<Enchantment>, List<Candidate>> byLeft = new HashMap<>();
+
+    public static void register() {
+        // Compile the server's index right away instead of on the first anvil click
+        ServerLifecycleEvents.SERVER_STARTED.register(SpellRecipeIndex::warmUp);
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> warmUp(server));
+    }
+
+    private static void warmUp(MinecraftServer server) {
+        of(server.getRegistryManager().getOrThrow(RegistryKeys.ENCHANTMENT));
+    }
+
+    /**
+     * Replace the loaded recipes.
+     */
+    static void publish(List<SpellRecipe> recipes) {
+        current = new RecipeSet(List.copyOf(recipes), current.generation + 1);
+    }
+
+    /**
+     * The index for the current recipes resolved against the given enchantment registry.
+     */
+    public static SpellRecipeIndex of(Registry<Enchantment> registry) {
+        return current.index(registry);
+    }
+
+    static List<SpellRecipe> getRecipes() {
+        return current.recipes;
+    }
+
+    /**
+     * Changes whenever a new recipe set is loaded; lets caches tell their answers are outdated.
+     */
+    public static int getGeneration() {
+        return current.generation;
+    }
+
+    private SpellRecipeIndex(Registry<Enchantment> registry, List<SpellRecipe> recipes) {
+        for (int i = 0; i < recipes.size(); i++) {
+            SpellRecipe recipe = recipes.get(i);
+            Optional<? extends RegistryEntry<Enchantment>> left = registry.getOptional(recipe.leftEnchantment);
+            Optional<? extends RegistryEntry<Enchantment>> right = registry.getOptional(recipe.rightEnchantment);
+
+            // A datapack may have removed the enchantment; the recipe just cannot be made then
+            if (left.isEmpty() || right.isEmpty()) {
+                ForgottenKnowledge.LOGGER.debug("Skipping spell recipe for {}: missing enchantment", recipe.result);
+                continue;
+            }
+
+            add(left.get(), new Candidate(recipe, i, recipe.leftLevel, right.get(), recipe.rightLevel));
+            // The books can go in either slot
+            if (!left.get().equals(right.get()) || recipe.leftLevel != recipe.rightLevel) {
+                add(right.get(), new Candidate(recipe, i, recipe.rightLevel, left.get(), recipe.leftLevel));
+            }
+        }
+    }
+
+    private void add(RegistryEntry<Enchantment> enchantment, Candidate candidate) {
+        byLeft.computeIfAbsent(enchantment, e -> new ArrayList<>()).add(candidate);
+    }
+
+    /**
+     * The first recipe (in load order) the two books satisfy, or null.
+     */
+    @Nullable
+    public SpellRecipe match(ItemEnchantmentsComponent left, ItemEnchantmentsComponent right) {
+        Candidate best = null;
+
+        for (Object2IntMap.Entry<RegistryEntry<Enchantment>> entry : left.getEnchantmentEntries()) {
+            List<Candidate> candidates = byLeft.get(entry.getKey());
+            if (candidates == null) continue;
+
+            int leftLevel = entry.getIntValue();
+            for (Candidate candidate : candidates) {
+                if (best != null && candidate.order > best.order) continue;
+                if (leftLevel >= candidate.leftLevel && right.getLevel(candidate.right) >= candidate.rightLevel) {
+                    best = candidate;
+                }
+            }
+        }
+
+        return best != null ? best.recipe : null;
+    }
+
+    // One loaded set of recipes plus its compiled indexes
+    private static final class RecipeSet {
+        final List<SpellRecipe> recipes;
+        final int generation;
+        final Map<Registry<Enchantment>, SpellRecipeIndex> byRegistry = Collections.synchronizedMap(new WeakHashMap<>());
+
+        RecipeSet(List<SpellRecipe> recipes, int generation) {
+            this.recipes = recipes;
+            this.generation = generation;
+        }
+
+        SpellRecipeIndex index(Registry<Enchantment> registry) {
+            return byRegistry.computeIfAbsent(registry, r -> new SpellRecipeIndex(r, recipes));
+        }
+    }
+
+    private record Candidate(SpellRecipe recipe, int order, int leftLevel,
+                             RegistryEntry<Enchantment> right, int rightLevel) {}
+}
@@ -0,0 +1,56 @@
+package empegrail.forgotten_knowledge.spell;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads every spell_recipes/*.json from the loaded datapacks and publishes them as one new recipe set.
+ *
+ * Broken files are logged and skipped; the rest of the recipes still load. Files are read in identifier
+ * order, which is also the order recipes are tried in when two of them match.
+ */
+final class SpellRecipeLoader implements SimpleSynchronousResourceReloadListener {
+    static final String DIRECTORY = "spell_recipes";
+
+    @Override
+    public Identifier getFabricId() {
+        return Identifier.of(ForgottenKnowledge.MOD_ID, DIRECTORY);
+    }
+
+    @Override
+    public void reload(ResourceManager manager) {
+        List<SpellRecipe> recipes = new ArrayList<>();
+        Map<Identifier, Resource> files = new TreeMap<>(
+                manager.findResources(DIRECTORY, id -> id.getPath().endsWith(".json")));
+
+        for (Map.Entry<Identifier, Resource> file : files.entrySet()) {
+            Identifier id = file.getKey();
+            try (Reader reader = file.getValue().getReader()) {
+                JsonElement json = JsonParser.parseReader(reader);
+                SpellRecipe.CODEC.parse(JsonOps.INSTANCE, json)
+                        .resultOrPartial(error -> ForgottenKnowledge.LOGGER.error("Invalid spell recipe {}: {}", id, error))
+                        .ifPresent(recipes::add);
+            } catch (IOException | JsonParseException e) {
+                ForgottenKnowledge.LOGGER.error("Could not read spell recipe {}", id, e);
+            }
+        }
+
+        // One write swaps the whole set; anvils keep using the old one until then
+        SpellRecipeIndex.publish(recipes);
+        ForgottenKnowledge.LOGGER.info("Loaded {} spell recipes", recipes.size());
+    }
+}
@@ -0,0 +1,23 @@
+package empegrail.forgotten_knowledge.state;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+/**
+ * What gets saved with an entity for a piece of spell state: the value and the world time it runs out at.
+ *
+ * World time stops while the server is down, so a mark saved with 20 seconds left still has 20 seconds
+ * left when the entity is loaded again.
+ */
+public record SpellMark<V>(V value, long expiresAt) {
+    public static <V> Codec<SpellMark<V>> codec(Codec<V> valueCodec) {
+        return RecordCodecBuilder.create(instance -> instance.group(
+                valueCodec.fieldOf("value").forGetter(SpellMark::value),
+                Codec.LONG.fieldOf("expires_at").forGetter(SpellMark::expiresAt)
+        ).apply(instance, SpellMark::new));
+    }
+
+    public boolean isExpired(long worldTime) {
+        return worldTime >= expiresAt;
+    }
+}
@@ -0,0 +1,112 @@
+package empegrail.forgotten_knowledge.state;
+
+import empegrail.forgotten_knowledge.cast.CastLimiter;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import empegrail.forgotten_knowledge.world.BlockEditEngine;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spell state of one running MinecraftServer: the spell work budget and backlog, the bulk block edits in
+ * progress and the cast rate limits, plus a {@link SpellWorldState} per world.
+ *
+ * Created when the server starts and torn down when it stops, so nothing leaks from one singleplayer
+ * session into the next, and the client thread of an integrated server never sees it. The server-wide parts
+ * may be touched from the server thread, or from a thread while it ticks one of the worlds.
+ */
+public final class SpellServerState {
+    @Nullable
+    private static volatile SpellServerState current;
+
+    private final MinecraftServer server;
+    // Worlds may be ticked in parallel by other mods, so the map itself has to be safe to share
+    private final Map<RegistryKey<World>, SpellWorldState> worlds = new ConcurrentHashMap<>();
+    private final SpellGovernor.State governor = new SpellGovernor.State();
+    private final BlockEditEngine.State edits = new BlockEditEngine.State();
+    private final CastLimiter.State castLimits = new CastLimiter.State();
+
+    private SpellServerState(MinecraftServer server) {
+        this.server = server;
+    }
+
+    static void register() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> current = new SpellServerState(server));
+
+        ServerTickEvents.START_WORLD_TICK.register(world -> of(world.getServer()).getWorld(world).startTick());
+        ServerTickEvents.END_WORLD_TICK.register(world -> of(world.getServer()).getWorld(world).endTick());
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            SpellServerState state = current;
+            current = null;
+            if (state != null) {
+                state.worlds.values().forEach(SpellWorldState::close);
+                state.worlds.clear();
+                state.governor.close();
+                state.edits.close();
+            }
+        });
+    }
+
+    /**
+     * State of the given server; fails if it is not the one running.
+     */
+    public static SpellServerState of(MinecraftServer server) {
+        SpellServerState state = current;
+        if (state == null || state.server != server) {
+            throw new IllegalStateException("No spell state for this server; it is not running");
+        }
+        return state;
+    }
+
+    /**
+     * State of the running server, or null between sessions.
+     */
+    @Nullable
+    public static SpellServerState find() {
+        return current;
+    }
+
+    public SpellGovernor.State getGovernor() {
+        checkThread();
+        return governor;
+    }
+
+    public BlockEditEngine.State getEdits() {
+        checkThread();
+        return edits;
+    }
+
+    public CastLimiter.State getCastLimits() {
+        checkThread();
+        return castLimits;
+    }
+
+    /**
+     * Fails fast if called from any thread but the server thread or one ticking a world of this server.
+     */
+    public void checkThread() {
+        Thread current = Thread.currentThread();
+        if (current == server.getThread()) return;
+        for (SpellWorldState world : worlds.values()) {
+            if (world.isOwnedBy(current)) return;
+        }
+        throw new IllegalStateException("Spell state of the server touched from " + current.getName());
+    }
+
+    public SpellWorldState getWorld(ServerWorld world) {
+        return worlds.computeIfAbsent(world.getRegistryKey(), key -> new SpellWorldState(world));
+    }
+
+    public Collection<SpellWorldState> getWorlds() {
+        return worlds.values();
+    }
+}
@@ -0,0 +1,24 @@
+package empegrail.forgotten_knowledge.state;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Added to every LivingEntity by LivingEntityMixin.
+ *
+ * The spell states of an entity live in one small array on the entity itself, one slot per
+ * {@link SpellStateStore}. The array stays null until a spell marks the entity, so the death and damage
+ * hooks can bail out on a single field check for the vast majority of entities.
+ */
+public interface SpellStateHolder {
+    @Nullable
+    Object[] forgotten_knowledge$getSpellStates();
+
+    void forgotten_knowledge$setSpellStates(@Nullable Object[] states);
+
+    /**
+     * True if any spell state is attached; the cheap check for hot paths.
+     */
+    default boolean forgotten_knowledge$hasSpellState() {
+        return forgotten_knowledge$getSpellStates() != null;
+    }
+}
@@ -0,0 +1,138 @@
+package empegrail.forgotten_knowledge.state;
+
+import com.mojang.serialization.Codec;
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One kind of spell state that entities can carry, each value with a deadline.
+ *
+ * The value itself is kept in the entity's {@link SpellStateHolder} slot for this store, so reading it is a
+ * field and an array access. The deadline is tracked by the {@link SpellWorldState} of the world the entity
+ * was marked in, which drops the value on time even if nothing ever looks at it again (the mob despawned,
+ * the retribution never triggered).
+ *
+ * Every mark is also attached to the entity as a persistent {@link SpellMark}, which is only written when the
+ * mark changes and saved with the entity. Entities loaded with a mark get it back in {@link SpellStates}.
+ */
+public final class SpellStateStore<V> {
+    private final String name;
+    private final int slot;
+    private final AttachmentType<SpellMark<V>> attachment;
+
+    SpellStateStore(String name, int slot, Codec<V> codec) {
+        this.name = name;
+        this.slot = slot;
+        this.attachment = AttachmentRegistry.create(Identifier.of(ForgottenKnowledge.MOD_ID, name),
+                builder -> builder.persistent(SpellMark.codec(codec)));
+    }
+
+    /**
+     * Store a value for the given number of ticks, replacing (and restarting) any previous one.
+     */
+    public void put(LivingEntity entity, V value, int durationTicks) {
+        SpellWorldState.of(serverWorld(entity)).put(this, entity, value, durationTicks);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(LivingEntity entity) {
+        SpellWorldState.Entry entry = SpellWorldState.current(entity, slot);
+        return entry != null ? (V) entry.value() : null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(LivingEntity entity) {
+        SpellWorldState.Entry entry = SpellWorldState.current(entity, slot);
+        if (entry == null) return null;
+
+        entry.owner().remove(entry);
+        return (V) entry.value();
+    }
+
+    // Called when the entity is loaded into a world
+    void restore(LivingEntity entity) {
+        // Already live
+        if (SpellWorldState.current(entity, slot) != null) return;
+
+        SpellMark<V> mark = entity.getAttached(attachment);
+        if (mark != null) {
+            SpellWorldState.of(serverWorld(entity)).restore(this, entity, mark);
+        }
+    }
+
+    // Called when the entity is unloaded from its world
+    void unload(LivingEntity entity) {
+        SpellWorldState.Entry entry = SpellWorldState.current(entity, slot);
+        if (entry != null) {
+            entry.owner().unload(entry);
+        }
+    }
+
+    private static ServerWorld serverWorld(LivingEntity entity) {
+        if (!(entity.getWorld() instanceof ServerWorld world)) {
+            throw new IllegalStateException("Spell state only exists on the server");
+        }
+        return world;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    AttachmentType<SpellMark<V>> getAttachment() {
+        return attachment;
+    }
+
+    /**
+     * Entities currently carrying this state, across all worlds of the running server.
+     */
+    public int size() {
+        SpellServerState server = SpellServerState.find();
+        if (server == null) return 0;
+
+        int size = 0;
+        for (SpellWorldState world : server.getWorlds()) {
+            size += world.size(slot);
+        }
+        return size;
+    }
+
+    /**
+     * Entries dropped because their deadline passed, since the server started.
+     */
+    public long getExpired() {
+        SpellServerState server = SpellServerState.find();
+        if (server == null) return 0;
+
+        long expired = 0;
+        for (SpellWorldState world : server.getWorlds()) {
+            expired += world.expired(slot);
+        }
+        return expired;
+    }
+
+    /**
+     * Entries taken out before their deadline (consumed or cancelled), since the server started.
+     */
+    public long getRemoved() {
+        SpellServerState server = SpellServerState.find();
+        if (server == null) return 0;
+
+        long removed = 0;
+        for (SpellWorldState world : server.getWorlds()) {
+            removed += world.removed(slot);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,58 @@
+package empegrail.forgotten_knowledge.state;
+
+import com.mojang.serialization.Codec;
+import empegrail.forgotten_knowledge.SpellEffects;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.minecraft.entity.LivingEntity;
+
+import java.util.List;
+
+/**
+ * The expiring per-entity state spells leave behind. Each store owns one slot of the
+ * {@link SpellStateHolder} array on the entities it marks, and a persistent attachment that carries the
+ * mark across unloads, logouts and restarts.
+ *
+ * NOTE: Call SpellStates.register() once from the mod initializer.
+ */
+public final class SpellStates {
+    static final int SLOT_COUNT = 2;
+
+    // Players waiting to punish their next attacker
+    public static final SpellStateStore<SpellEffects.RetributionData> RETRIBUTION =
+            new SpellStateStore<>("retribution", 0, SpellEffects.RetributionData.CODEC);
+    // Mobs hit by NECROTIC_TOUCH at level 3+, with the spell level
+    public static final SpellStateStore<Integer> NECROTIC = new SpellStateStore<>("necrotic", 1, Codec.INT);
+
+    private static final List<SpellStateStore<?>> ALL = List.of(RETRIBUTION, NECROTIC);
+
+    private SpellStates() {}
+
+    public static void register() {
+        // Per-server and per-world containers, created on start and torn down on stop
+        SpellServerState.register();
+
+        // Saved marks come back when their entity is loaded (chunk load, join, dimension change)
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof LivingEntity living) {
+                for (SpellStateStore<?> store : ALL) {
+                    store.restore(living);
+                }
+            }
+        });
+
+        // ...and stop being tracked when it unloads, keeping only the saved mark
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof LivingEntity living && ((SpellStateHolder) living).forgotten_knowledge$hasSpellState()) {
+                for (SpellStateStore<?> store : ALL) {
+                    store.unload(living);
+                }
+            }
+        });
+
+        TemporaryFlight.register();
+    }
+
+    public static List<SpellStateStore<?>> getStores() {
+        return ALL;
+    }
+}
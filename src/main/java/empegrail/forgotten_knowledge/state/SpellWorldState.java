@@ -0,0 +1,239 @@
+package empegrail.forgotten_knowledge.state;
+
+import empegrail.forgotten_knowledge.scheduler.TimingWheel;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * All spell state owned by one ServerWorld: the scheduler wheel for delayed spell phases and the expiry
+ * wheel for the spell states of entities marked in this world.
+ *
+ * Only the thread that owns the world may touch it: the server thread, or, while the world is ticking, the
+ * thread ticking it. That is always the server thread in vanilla; mods that tick worlds in parallel hand
+ * each world its own thread for the duration of its tick.
+ */
+public final class SpellWorldState {
+    private static final int SLOTS = 256; // must be a power of two
+    private static final int MASK = SLOTS - 1;
+
+    private final ServerWorld world;
+    private final TimingWheel scheduler;
+    private final ArrayDeque<Entry>[] expiry;
+    private long currentTick;
+    private volatile Thread owner;
+
+    // Per spell state store, indexed by its slot
+    private final int[] sizes = new int[SpellStates.SLOT_COUNT];
+    private final long[] expired = new long[SpellStates.SLOT_COUNT];
+    private final long[] removed = new long[SpellStates.SLOT_COUNT];
+
+    @SuppressWarnings("unchecked")
+    SpellWorldState(ServerWorld world) {
+        this.world = world;
+        this.owner = world.getServer().getThread();
+        this.currentTick = world.getTime();
+        this.scheduler = new TimingWheel(world.getTime());
+        this.expiry = new ArrayDeque[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            expiry[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * State of the given world on its running server.
+     */
+    public static SpellWorldState of(ServerWorld world) {
+        return SpellServerState.of(world.getServer()).getWorld(world);
+    }
+
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    public TimingWheel getScheduler() {
+        checkThread();
+        return scheduler;
+    }
+
+    /**
+     * Fails fast if called from any thread but the one ticking this world.
+     */
+    public void checkThread() {
+        Thread current = Thread.currentThread();
+        if (current != owner) {
+            throw new IllegalStateException("Spell state of " + world.getRegistryKey().getValue()
+                    + " touched from " + current.getName() + " instead of " + owner.getName());
+        }
+    }
+
+    boolean isOwnedBy(Thread thread) {
+        return owner == thread;
+    }
+
+    void startTick() {
+        owner = Thread.currentThread();
+        scheduler.beginTick();
+    }
+
+    void endTick() {
+        checkThread();
+        long now = world.getTime();
+        scheduler.advanceTo(now);
+        expireUntil(now);
+        // Between ticks the world belongs to the server thread again
+        owner = world.getServer().getThread();
+    }
+
+    // Tear down: pending spell phases get their cancel action, entities lose their live marks. The saved
+    // marks stay; entities were written to disk before the server stopped and pick them up on next load.
+    void close() {
+        checkThread();
+        scheduler.cancelAll();
+        for (ArrayDeque<Entry> bucket : expiry) {
+            Entry entry;
+            while ((entry = bucket.poll()) != null) {
+                int slot = entry.store.getSlot();
+                if (current(entry.entity, slot) == entry) {
+                    swap(entry.entity, slot, null);
+                }
+            }
+        }
+        Arrays.fill(sizes, 0);
+    }
+
+    <V> void put(SpellStateStore<V> store, LivingEntity entity, V value, int durationTicks) {
+        checkThread();
+        long deadline = currentTick + Math.max(1, durationTicks);
+        place(store, entity, value, deadline);
+        entity.setAttached(store.getAttachment(), new SpellMark<>(value, deadline));
+    }
+
+    /**
+     * Bring back a mark saved with the entity, unless it ran out while the entity was away.
+     */
+    <V> void restore(SpellStateStore<V> store, LivingEntity entity, SpellMark<V> mark) {
+        checkThread();
+        if (mark.isExpired(world.getTime())) {
+            entity.removeAttached(store.getAttachment());
+            expired[store.getSlot()]++;
+            return;
+        }
+        place(store, entity, mark.value(), mark.expiresAt());
+    }
+
+    void remove(Entry entry) {
+        checkThread();
+        int slot = entry.store.getSlot();
+        swap(entry.entity, slot, null);
+        entry.entity.removeAttached(entry.store.getAttachment());
+        sizes[slot]--;
+        removed[slot]++;
+    }
+
+    /**
+     * The entity left the world (chunk unload, logout, dimension change). Its live entry goes, so the old
+     * instance is not kept reachable and not counted twice when it loads again; the saved mark stays and is
+     * restored on that load.
+     */
+    void unload(Entry entry) {
+        checkThread();
+        int slot = entry.store.getSlot();
+        swap(entry.entity, slot, null);
+        expiry[(int) (entry.deadline & MASK)].remove(entry);
+        sizes[slot]--;
+    }
+
+    private void place(SpellStateStore<?> store, LivingEntity entity, Object value, long deadline) {
+        int slot = store.getSlot();
+        Entry entry = new Entry(this, store, entity, value, deadline);
+        Entry previous = swap(entity, slot, entry);
+        if (previous != null) {
+            // Counted by the world it was marked in, which is not this one if the entity changed dimension
+            previous.owner.sizes[slot]--;
+        }
+        sizes[slot]++;
+        // A replaced entry stays in its bucket and is skipped when its deadline comes around
+        expiry[(int) (deadline & MASK)].add(entry);
+    }
+
+    private void expireUntil(long tick) {
+        // After a large jump one revolution is enough to visit every bucket once
+        if (tick - currentTick > SLOTS) {
+            currentTick = tick - SLOTS;
+        }
+
+        while (currentTick < tick) {
+            currentTick++;
+            ArrayDeque<Entry> bucket = expiry[(int) (currentTick & MASK)];
+
+            for (int i = bucket.size(); i > 0; i--) {
+                Entry entry = bucket.poll();
+                int slot = entry.store.getSlot();
+                // Replaced or removed since it was queued
+                if (current(entry.entity, slot) != entry) continue;
+
+                if (entry.deadline > tick) {
+                    // Belongs to a later revolution
+                    bucket.add(entry);
+                    continue;
+                }
+
+                swap(entry.entity, slot, null);
+                entry.entity.removeAttached(entry.store.getAttachment());
+                sizes[slot]--;
+                expired[slot]++;
+            }
+        }
+    }
+
+    int size(int slot) {
+        return sizes[slot];
+    }
+
+    long expired(int slot) {
+        return expired[slot];
+    }
+
+    long removed(int slot) {
+        return removed[slot];
+    }
+
+    @Nullable
+    static Entry current(LivingEntity entity, int slot) {
+        Object[] states = ((SpellStateHolder) entity).forgotten_knowledge$getSpellStates();
+        return states != null ? (Entry) states[slot] : null;
+    }
+
+    // Put the entry in the entity's slot and return what was there; the array goes away once it is empty
+    @Nullable
+    private static Entry swap(LivingEntity entity, int slot, @Nullable Entry entry) {
+        SpellStateHolder holder = (SpellStateHolder) entity;
+        Object[] states = holder.forgotten_knowledge$getSpellStates();
+        if (states == null) {
+            if (entry == null) return null;
+            states = new Object[SpellStates.SLOT_COUNT];
+            holder.forgotten_knowledge$setSpellStates(states);
+        }
+
+        Entry previous = (Entry) states[slot];
+        states[slot] = entry;
+
+        if (entry == null && isEmpty(states)) {
+            holder.forgotten_knowledge$setSpellStates(null);
+        }
+        return previous;
+    }
+
+    private static boolean isEmpty(Object[] states) {
+        for (Object state : states) {
+            if (state != null) return false;
+        }
+        return true;
+    }
+
+    record Entry(SpellWorldState owner, SpellStateStore<?> store, LivingEntity entity, Object value, long deadline) {}
+}
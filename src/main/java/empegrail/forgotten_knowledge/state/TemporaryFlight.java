@@ -0,0 +1,84 @@
+package empegrail.forgotten_knowledge.state;
+
+import com.mojang.serialization.Codec;
+import empegrail.forgotten_knowledge.ForgottenKnowledge;
+import empegrail.forgotten_knowledge.scheduler.SpellScheduler;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+
+/**
+ * Creative-like flight granted by FEATHER_FALL 5+.
+ *
+ * The grant is saved with the player as a {@link SpellMark} holding the fly speed and the world time the
+ * flight runs out at. Logging out, dying or a shutdown takes the abilities away right away; logging back in
+ * before the mark runs out gives the rest of the flight back. A player saved with flight whose mark has run
+ * out (e.g. after a crash) loses it on join, so free flight never outlives the spell.
+ */
+public final class TemporaryFlight {
+    private static final float DEFAULT_FLY_SPEED = 0.05f;
+
+    private static final AttachmentType<SpellMark<Float>> FLIGHT = AttachmentRegistry.create(
+            Identifier.of(ForgottenKnowledge.MOD_ID, "temporary_flight"),
+            builder -> builder.persistent(SpellMark.codec(Codec.FLOAT)));
+
+    private TemporaryFlight() {}
+
+    static void register() {
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> resume(handler.getPlayer()));
+    }
+
+    /**
+     * Let the player fly for the given number of ticks. Does nothing if they can already fly.
+     */
+    public static boolean grant(ServerPlayerEntity player, int durationTicks, float flySpeed) {
+        if (player.getAbilities().allowFlying) return false;
+
+        long expiresAt = player.getWorld().getTime() + durationTicks;
+        player.setAttached(FLIGHT, new SpellMark<>(flySpeed, expiresAt));
+        enable(player, flySpeed, durationTicks);
+        return true;
+    }
+
+    private static void resume(ServerPlayerEntity player) {
+        SpellMark<Float> mark = player.getAttached(FLIGHT);
+        if (mark == null) return;
+
+        long now = player.getWorld().getTime();
+        if (mark.isExpired(now)) {
+            revoke(player);
+            return;
+        }
+        enable(player, mark.value(), (int) Math.min(Integer.MAX_VALUE, mark.expiresAt() - now));
+    }
+
+    private static void enable(ServerPlayerEntity player, float flySpeed, int durationTicks) {
+        player.getAbilities().allowFlying = true;
+        player.getAbilities().setFlySpeed(flySpeed);
+        player.sendAbilitiesUpdate();
+
+        // Ends on time. If the task is cancelled first (death, logout, shutdown) only the abilities go; the
+        // saved mark stays so a returning player gets the rest of their flight.
+        SpellScheduler.schedule((ServerWorld) player.getWorld(), player, durationTicks,
+                () -> revoke(player),
+                () -> takeAbilities(player));
+    }
+
+    private static void revoke(ServerPlayerEntity player) {
+        player.removeAttached(FLIGHT);
+        takeAbilities(player);
+    }
+
+    private static void takeAbilities(ServerPlayerEntity player) {
+        // Only remove flight if we granted it (player might have creative mode now)
+        if (!player.isCreative() && !player.isSpectator()) {
+            player.getAbilities().allowFlying = false;
+            player.getAbilities().flying = false;
+            player.getAbilities().setFlySpeed(DEFAULT_FLY_SPEED);
+            player.sendAbilitiesUpdate();
+        }
+    }
+}
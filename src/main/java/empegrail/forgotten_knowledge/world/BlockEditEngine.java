@@ -0,0 +1,113 @@
+package empegrail.forgotten_knowledge.world;
+
+import empegrail.forgotten_knowledge.ModConfig;
+import empegrail.forgotten_knowledge.scheduler.SpellGovernor;
+import empegrail.forgotten_knowledge.state.SpellServerState;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs {@link BlockEditJob}s a slice at a time at the end of every server tick.
+ *
+ * Each job gets at most ModConfig.blockEditBlocksPerTick blocks and ModConfig.blockEditMaxMillisPerTick
+ * milliseconds per tick, so a huge edit is spread over as many ticks as it needs instead of stalling one.
+ * Slices are charged to the {@link SpellGovernor} like any other spell work: once its budget for the tick
+ * is spent, the remaining jobs wait. Jobs take turns starting, so they share what is left round-robin; the
+ * first job of a tick always gets its slice so edits keep moving.
+ * The jobs in progress belong to the running server's {@link SpellServerState} and are dropped when it
+ * stops.
+ *
+ * NOTE: Call BlockEditEngine.register() once from the mod initializer.
+ */
+public final class BlockEditEngine {
+    // How often (in ticks) owners of long-running jobs are told how far along they are
+    private static final int PROGRESS_INTERVAL = 10;
+
+    private BlockEditEngine() {}
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(BlockEditEngine::tick);
+    }
+
+    public static BlockEditJob submit(BlockEditJob job) {
+        SpellServerState.of(job.getWorld().getServer()).getEdits().jobs.add(job);
+        return job;
+    }
+
+    public static int activeJobs() {
+        SpellServerState server = SpellServerState.find();
+        return server != null ? server.getEdits().jobs.size() : 0;
+    }
+
+    private static void tick(MinecraftServer server) {
+        State state = SpellServerState.of(server).getEdits();
+        List<BlockEditJob> jobs = state.jobs;
+        if (jobs.isEmpty()) return;
+
+        long maxNanos = (long) (ModConfig.blockEditMaxMillisPerTick * 1_000_000L);
+        int start = state.next % jobs.size();
+        int stepped = 0;
+
+        // One slice per job, starting where the last tick stopped, until the governor's budget is spent
+        while (stepped < jobs.size()) {
+            long remaining = SpellGovernor.getRemainingNanos();
+            if (stepped > 0 && remaining == 0) break;
+
+            BlockEditJob job = jobs.get((start + stepped) % jobs.size());
+            long sliceNanos = stepped == 0 ? maxNanos : Math.min(maxNanos, remaining);
+            SpellGovernor.time(() -> {
+                job.step(ModConfig.blockEditBlocksPerTick, System.nanoTime() + sliceNanos);
+                return true;
+            });
+            stepped++;
+        }
+        // Whoever did not get a slice this tick goes first next tick
+        state.next = start + stepped;
+
+        boolean reportProgress = server.getTicks() % PROGRESS_INTERVAL == 0;
+        Iterator<BlockEditJob> it = jobs.iterator();
+        while (it.hasNext()) {
+            BlockEditJob job = it.next();
+            if (job.isDone()) {
+                it.remove();
+                report(server, job);
+            } else if (reportProgress) {
+                report(server, job);
+            }
+        }
+    }
+
+    // Progress goes to the owner's action bar
+    private static void report(MinecraftServer server, BlockEditJob job) {
+        if (job.getOwner() == null) return;
+
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(job.getOwner());
+        if (player == null) return;
+
+        if (job.isDone()) {
+            player.sendMessage(Text.literal(job.getLabel() + "... done"), true);
+        } else {
+            int percent = (int) (job.getProgress() * 100);
+            player.sendMessage(Text.literal(job.getLabel() + "... " + percent + "%"), true);
+        }
+    }
+
+    /**
+     * Bulk edits in progress on one server. Lives in its {@link SpellServerState}.
+     */
+    public static final class State {
+        private final List<BlockEditJob> jobs = new ArrayList<>();
+        // Index of the job that gets the first slice next tick
+        private int next;
+
+        public void close() {
+            jobs.clear();
+        }
+    }
+}
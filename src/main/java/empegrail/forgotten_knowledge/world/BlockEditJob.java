@@ -0,0 +1,152 @@
+package empegrail.forgotten_knowledge.world;
+
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An incremental edit over a box-shaped region, processed a slice at a time by the {@link BlockEditEngine}.
+ *
+ * The region is walked top layer first (y descending, then z, then x), so falling blocks never drop into
+ * the part that was already cleared.
+ */
+public final class BlockEditJob {
+    /**
+     * Decides what a block should become. Return null to leave it untouched.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        @Nullable BlockState apply(ServerWorld world, BlockPos pos, BlockState current);
+    }
+
+    private final ServerWorld world;
+    @Nullable private final UUID owner;
+    private final String label;
+    private final int minX, minZ, maxY;
+    private final int sizeX, sizeZ;
+    private final long layerArea;
+    private final long volume;
+    private final Operation operation;
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+    private final SectionBatchWriter writer;
+    // Spell that submitted the job; its slices are charged to it
+    @Nullable private final SpellProfiler.Stats stats;
+
+    private long cursor;
+    private long changed;
+
+    /**
+     * @param owner  player to report progress to (may be null)
+     * @param label  short text shown with the progress, e.g. "Vanishing"
+     * @param min    lowest corner of the region
+     */
+    public BlockEditJob(ServerWorld world, @Nullable Entity owner, String label,
+                        BlockPos min, int sizeX, int sizeY, int sizeZ, Operation operation) {
+        this.world = world;
+        this.owner = owner != null ? owner.getUuid() : null;
+        this.label = label;
+        this.minX = min.getX();
+        this.minZ = min.getZ();
+        this.maxY = min.getY() + sizeY - 1;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.layerArea = (long) sizeX * sizeZ;
+        this.volume = layerArea * sizeY;
+        this.operation = operation;
+        this.writer = new SectionBatchWriter(world);
+        this.stats = SpellProfiler.current();
+    }
+
+    /**
+     * Visit up to maxBlocks more blocks, stopping early once System.nanoTime() passes deadlineNanos.
+     *
+     * @return number of blocks visited
+     */
+    int step(int maxBlocks, long deadlineNanos) {
+        SpellProfiler.Stats previous = SpellProfiler.enter(stats);
+        long start = System.nanoTime();
+        try {
+            return stepSlice(maxBlocks, deadlineNanos);
+        } finally {
+            if (stats != null) {
+                stats.recordPhase(System.nanoTime() - start);
+            }
+            SpellProfiler.exit(previous);
+        }
+    }
+
+    private int stepSlice(int maxBlocks, long deadlineNanos) {
+        int visited = 0;
+
+        while (cursor < volume && visited < maxBlocks) {
+            long layer = cursor / layerArea;
+            int y = (int) (maxY - layer);
+
+            // Skip whole layers outside the build limit
+            if (world.isOutOfHeightLimit(y)) {
+                cursor = (layer + 1) * layerArea;
+                continue;
+            }
+
+            long inLayer = cursor - layer * layerArea;
+            int z = minZ + (int) (inLayer / sizeX);
+            int x = minX + (int) (inLayer % sizeX);
+            mutable.set(x, y, z);
+
+            BlockState current = world.getBlockState(mutable);
+            BlockState replacement = operation.apply(world, mutable, current);
+            if (replacement != null && replacement != current) {
+                writer.set(mutable, replacement);
+            }
+
+            cursor++;
+            visited++;
+
+            // nanoTime is not free; only look at the clock every 256 blocks
+            if ((visited & 255) == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+
+        // Everything from this slice goes out as one batch
+        changed += writer.flush();
+        return visited;
+    }
+
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    @Nullable
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean isDone() {
+        return cursor >= volume;
+    }
+
+    /**
+     * Fraction of the region visited so far, from 0 to 1.
+     */
+    public double getProgress() {
+        return volume == 0 ? 1.0 : (double) cursor / volume;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public long getChangedBlocks() {
+        return changed;
+    }
+}
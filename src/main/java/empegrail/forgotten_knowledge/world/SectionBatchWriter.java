@@ -0,0 +1,213 @@
+package empegrail.forgotten_knowledge.world;
+
+import empegrail.forgotten_knowledge.profile.BlockEditEvent;
+import empegrail.forgotten_knowledge.profile.SpellProfiler;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.LightingProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk block writer for spell world edits.
+ *
+ * Writes are collected with set() and applied by flush() one chunk section at a time: states go straight
+ * into the section, each section is sent to watching players as a single delta packet, and neighbor
+ * updates run once for the outer shell of the batch instead of once per block.
+ *
+ * Blocks with block entities (on either side of the change) take the regular setBlockState path so
+ * inventories and block entity bookkeeping stay correct. Edits in unloaded chunks are dropped.
+ *
+ * Every other change still gets the per-block callbacks of a normal setBlockState: onStateReplaced on the
+ * old state, POI updates, path invalidation and onBlockAdded on the new state. What it does not get is a
+ * block update packet per block, neighbor and shape updates inside the batch (only the outer shell is
+ * notified), and game events; nothing listens for block changes a spell makes in bulk.
+ */
+public final class SectionBatchWriter {
+    // The heightmaps WorldChunk keeps up to date on every block change
+    private static final Heightmap.Type[] TRACKED_HEIGHTMAPS = {
+            Heightmap.Type.MOTION_BLOCKING,
+            Heightmap.Type.MOTION_BLOCKING_NO_LEAVES,
+            Heightmap.Type.OCEAN_FLOOR,
+            Heightmap.Type.WORLD_SURFACE
+    };
+
+    private final ServerWorld world;
+    private final Long2ObjectLinkedOpenHashMap<SectionEdits> sections = new Long2ObjectLinkedOpenHashMap<>();
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+    private final BlockPos.Mutable neighbor = new BlockPos.Mutable();
+
+    public SectionBatchWriter(ServerWorld world) {
+        this.world = world;
+    }
+
+    public void set(BlockPos pos, BlockState state) {
+        int sx = ChunkSectionPos.getSectionCoord(pos.getX());
+        int sy = ChunkSectionPos.getSectionCoord(pos.getY());
+        int sz = ChunkSectionPos.getSectionCoord(pos.getZ());
+
+        long key = ChunkSectionPos.asLong(sx, sy, sz);
+        SectionEdits edits = sections.get(key);
+        if (edits == null) {
+            edits = new SectionEdits(sx, sy, sz);
+            sections.put(key, edits);
+        }
+        edits.add(ChunkSectionPos.packLocal(pos), state);
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * Apply everything collected so far.
+     *
+     * @return number of blocks that actually changed
+     */
+    public int flush() {
+        if (sections.isEmpty()) return 0;
+
+        BlockEditEvent event = new BlockEditEvent();
+        event.begin();
+        int sectionCount = sections.size();
+
+        LightingProvider lighting = world.getChunkManager().getLightingProvider();
+        Long2ObjectOpenHashMap<BlockState> changed = new Long2ObjectOpenHashMap<>();
+
+        for (SectionEdits edits : sections.values()) {
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(edits.sx, edits.sz);
+            int sectionIndex = world.sectionCoordToIndex(edits.sy);
+            if (chunk == null || sectionIndex < 0 || sectionIndex >= chunk.getSectionArray().length) {
+                continue;
+            }
+
+            ChunkSection section = chunk.getSection(sectionIndex);
+            boolean wasEmpty = section.isEmpty();
+            ShortOpenHashSet packetPositions = new ShortOpenHashSet();
+
+            for (int i = 0; i < edits.positions.size(); i++) {
+                short packed = edits.positions.getShort(i);
+                BlockState state = edits.states.get(i);
+                int lx = ChunkSectionPos.unpackLocalX(packed);
+                int ly = ChunkSectionPos.unpackLocalY(packed);
+                int lz = ChunkSectionPos.unpackLocalZ(packed);
+                mutable.set((edits.sx << 4) + lx, (edits.sy << 4) + ly, (edits.sz << 4) + lz);
+
+                BlockState old = section.getBlockState(lx, ly, lz);
+                if (old == state) continue;
+
+                if (old.hasBlockEntity() || state.hasBlockEntity()) {
+                    // Block entities need the full vanilla path (removal, inventories, sync)
+                    world.setBlockState(mutable, state, Block.NOTIFY_ALL);
+                    continue;
+                }
+
+                section.setBlockState(lx, ly, lz, state);
+                for (Heightmap.Type type : TRACKED_HEIGHTMAPS) {
+                    chunk.getHeightmap(type).trackUpdate(lx, mutable.getY(), lz, state);
+                }
+                lighting.checkBlock(mutable);
+
+                // Callbacks may keep the position, so hand out an immutable one
+                BlockPos pos = mutable.toImmutable();
+                // What World.setBlockState does around the chunk write: the old block cleans up after itself,
+                // POIs (portals, beds, job sites, lodestones) follow the change, and mob paths through the
+                // position are invalidated
+                old.onStateReplaced(world, pos, false);
+                world.onBlockStateChanged(pos, old, state);
+                world.updateListeners(pos, old, state, 0);
+                // Lets fire, frosted ice etc. schedule their own ticks like a normal placement would
+                state.onBlockAdded(world, pos, old, false);
+
+                packetPositions.add(packed);
+                changed.put(mutable.asLong(), state);
+            }
+
+            if (packetPositions.isEmpty()) continue;
+
+            if (wasEmpty != section.isEmpty()) {
+                lighting.setSectionStatus(ChunkSectionPos.from(edits.sx, edits.sy, edits.sz), section.isEmpty());
+            }
+            chunk.markNeedsSaving();
+
+            // One delta packet per section for everyone watching the chunk
+            ChunkDeltaUpdateS2CPacket packet = new ChunkDeltaUpdateS2CPacket(
+                    ChunkSectionPos.from(edits.sx, edits.sy, edits.sz), packetPositions, section);
+            for (ServerPlayerEntity player : PlayerLookup.tracking(world, chunk.getPos())) {
+                player.networkHandler.sendPacket(packet);
+            }
+        }
+
+        sections.clear();
+        notifyShell(changed);
+        SpellProfiler.countBlocks(changed.size());
+
+        event.end();
+        if (event.shouldCommit()) {
+            SpellProfiler.Stats spell = SpellProfiler.current();
+            event.tome = spell != null ? spell.getName() : null;
+            event.world = world.getRegistryKey().getValue().toString();
+            event.sections = sectionCount;
+            event.blocks = changed.size();
+            event.commit();
+        }
+        return changed.size();
+    }
+
+    // Neighbor and shape updates only matter where the batch touches blocks outside of it
+    private void notifyShell(Long2ObjectOpenHashMap<BlockState> changed) {
+        for (Long2ObjectMap.Entry<BlockState> entry : changed.long2ObjectEntrySet()) {
+            mutable.set(entry.getLongKey());
+
+            boolean onShell = false;
+            for (Direction direction : Direction.values()) {
+                neighbor.set(mutable, direction);
+                if (!changed.containsKey(neighbor.asLong())) {
+                    onShell = true;
+                    break;
+                }
+            }
+            if (!onShell) continue;
+
+            // Updates may get queued, so hand out an immutable position
+            BlockPos pos = mutable.toImmutable();
+            BlockState state = entry.getValue();
+            world.updateNeighbors(pos, state.getBlock());
+            state.updateNeighbors(world, pos, Block.NOTIFY_ALL);
+        }
+    }
+
+    // Pending writes for one chunk section, in the order they were made
+    private static final class SectionEdits {
+        final int sx, sy, sz;
+        final ShortArrayList positions = new ShortArrayList();
+        final List<BlockState> states = new ArrayList<>();
+
+        SectionEdits(int sx, int sy, int sz) {
+            this.sx = sx;
+            this.sy = sy;
+            this.sz = sz;
+        }
+
+        void add(short packedLocal, BlockState state) {
+            positions.add(packedLocal);
+            states.add(state);
+        }
+    }
+}
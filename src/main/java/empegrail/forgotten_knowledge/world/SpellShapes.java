@@ -0,0 +1,302 @@
+package empegrail.forgotten_knowledge.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached block offsets for area-of-effect spells.
+ *
+ * Each shape is built once per size and then reused by every cast. Offsets are packed with
+ * BlockPos.asLong, so walking a shape is a plain loop over a long[]. A bitmask over the shape's bounding
+ * box answers "is this cell part of it?", which lets a spell run one entity query for the whole area and
+ * filter the results instead of querying every block.
+ */
+public final class SpellShapes {
+    private SpellShapes() {}
+
+    private enum Kind { RING, DISC, SQUARE, SPHERE, CUBE, CIRCLE }
+
+    private static final Map<Long, Object> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Flat ring: the cells whose distance from the center is within half a block of the radius.
+     */
+    public static Shape ring(int radius) {
+        return shape(Kind.RING, radius);
+    }
+
+    /**
+     * Flat filled circle; the union of ring(0) up to ring(radius).
+     */
+    public static Shape disc(int radius) {
+        return shape(Kind.DISC, radius);
+    }
+
+    /**
+     * Flat (2 * radius + 1) x (2 * radius + 1) square.
+     */
+    public static Shape square(int radius) {
+        return shape(Kind.SQUARE, radius);
+    }
+
+    /**
+     * Filled ball, rounded the same way as disc().
+     */
+    public static Shape sphere(int radius) {
+        return shape(Kind.SPHERE, radius);
+    }
+
+    /**
+     * size x size x size cube running from -size / 2 to size - size / 2 - 1 on every axis.
+     */
+    public static Shape cube(int size) {
+        return shape(Kind.CUBE, size);
+    }
+
+    /**
+     * Evenly spaced points on the unit circle, for particle rings.
+     */
+    public static Circle circle(int points) {
+        return (Circle) CACHE.computeIfAbsent(key(Kind.CIRCLE, points), k -> new Circle(points));
+    }
+
+    private static Shape shape(Kind kind, int size) {
+        if (size < 0) throw new IllegalArgumentException("Negative shape size: " + size);
+        return (Shape) CACHE.computeIfAbsent(key(kind, size), k -> build(kind, size));
+    }
+
+    private static long key(Kind kind, int size) {
+        return ((long) kind.ordinal() << 32) | (size & 0xFFFFFFFFL);
+    }
+
+    private static Shape build(Kind kind, int size) {
+        LongArrayList offsets = new LongArrayList();
+        // Squared distances are integers, so "within half a block" becomes r^2 - r < d^2 <= r^2 + r
+        long inner = (long) size * size - size;
+        long outer = (long) size * size + size;
+
+        switch (kind) {
+            case RING -> {
+                for (int x = -size; x <= size; x++) {
+                    for (int z = -size; z <= size; z++) {
+                        long d = (long) x * x + (long) z * z;
+                        if ((d > inner || size == 0) && d <= outer) offsets.add(BlockPos.asLong(x, 0, z));
+                    }
+                }
+            }
+            case DISC -> {
+                for (int x = -size; x <= size; x++) {
+                    for (int z = -size; z <= size; z++) {
+                        if ((long) x * x + (long) z * z <= outer) offsets.add(BlockPos.asLong(x, 0, z));
+                    }
+                }
+            }
+            case SQUARE -> {
+                for (int x = -size; x <= size; x++) {
+                    for (int z = -size; z <= size; z++) {
+                        offsets.add(BlockPos.asLong(x, 0, z));
+                    }
+                }
+            }
+            case SPHERE -> {
+                for (int x = -size; x <= size; x++) {
+                    for (int y = -size; y <= size; y++) {
+                        for (int z = -size; z <= size; z++) {
+                            if ((long) x * x + (long) y * y + (long) z * z <= outer) {
+                                offsets.add(BlockPos.asLong(x, y, z));
+                            }
+                        }
+                    }
+                }
+            }
+            case CUBE -> {
+                int min = -(size / 2);
+                for (int x = min; x < min + size; x++) {
+                    for (int y = min; y < min + size; y++) {
+                        for (int z = min; z < min + size; z++) {
+                            offsets.add(BlockPos.asLong(x, y, z));
+                        }
+                    }
+                }
+            }
+            default -> throw new IllegalStateException("Not a block shape: " + kind);
+        }
+
+        return new Shape(offsets.toLongArray());
+    }
+
+    /**
+     * An immutable set of block offsets around a center.
+     */
+    public static final class Shape {
+        private final long[] offsets;
+        private final int minX, minY, minZ;
+        private final int sizeX, sizeY, sizeZ;
+        // One bit per cell of the bounding box, and one per column of its footprint
+        private final long[] cells;
+        private final long[] columns;
+
+        private Shape(long[] offsets) {
+            this.offsets = offsets;
+
+            int loX = 0, loY = 0, loZ = 0, hiX = -1, hiY = -1, hiZ = -1;
+            for (int i = 0; i < offsets.length; i++) {
+                int x = BlockPos.unpackLongX(offsets[i]);
+                int y = BlockPos.unpackLongY(offsets[i]);
+                int z = BlockPos.unpackLongZ(offsets[i]);
+                if (i == 0 || x < loX) loX = x;
+                if (i == 0 || y < loY) loY = y;
+                if (i == 0 || z < loZ) loZ = z;
+                if (i == 0 || x > hiX) hiX = x;
+                if (i == 0 || y > hiY) hiY = y;
+                if (i == 0 || z > hiZ) hiZ = z;
+            }
+            this.minX = loX;
+            this.minY = loY;
+            this.minZ = loZ;
+            this.sizeX = hiX - loX + 1;
+            this.sizeY = hiY - loY + 1;
+            this.sizeZ = hiZ - loZ + 1;
+
+            this.cells = new long[(int) (((long) sizeX * sizeY * sizeZ + 63) >>> 6)];
+            this.columns = new long[(sizeX * sizeZ + 63) >>> 6];
+            for (long offset : offsets) {
+                int x = BlockPos.unpackLongX(offset) - minX;
+                int y = BlockPos.unpackLongY(offset) - minY;
+                int z = BlockPos.unpackLongZ(offset) - minZ;
+                int cell = (y * sizeZ + z) * sizeX + x;
+                int column = z * sizeX + x;
+                cells[cell >>> 6] |= 1L << cell;
+                columns[column >>> 6] |= 1L << column;
+            }
+        }
+
+        public int size() {
+            return offsets.length;
+        }
+
+        public int getX(int index) {
+            return BlockPos.unpackLongX(offsets[index]);
+        }
+
+        public int getY(int index) {
+            return BlockPos.unpackLongY(offsets[index]);
+        }
+
+        public int getZ(int index) {
+            return BlockPos.unpackLongZ(offsets[index]);
+        }
+
+        /**
+         * Write the world position of cell index around center into out.
+         */
+        public BlockPos.Mutable getPos(int index, BlockPos center, BlockPos.Mutable out) {
+            long offset = offsets[index];
+            return out.set(
+                    center.getX() + BlockPos.unpackLongX(offset),
+                    center.getY() + BlockPos.unpackLongY(offset),
+                    center.getZ() + BlockPos.unpackLongZ(offset));
+        }
+
+        public boolean contains(int dx, int dy, int dz) {
+            int x = dx - minX, y = dy - minY, z = dz - minZ;
+            if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) return false;
+            int cell = (y * sizeZ + z) * sizeX + x;
+            return (cells[cell >>> 6] & (1L << cell)) != 0;
+        }
+
+        /**
+         * Whether any cell of the shape sits in column (dx, dz), at any height.
+         */
+        public boolean containsColumn(int dx, int dz) {
+            int x = dx - minX, z = dz - minZ;
+            if (x < 0 || z < 0 || x >= sizeX || z >= sizeZ) return false;
+            int column = z * sizeX + x;
+            return (columns[column >>> 6] & (1L << column)) != 0;
+        }
+
+        /**
+         * Box around every cell of the shape when placed at center. Use it as the one entity query area.
+         */
+        public Box getBounds(BlockPos center) {
+            double x = center.getX() + minX;
+            double y = center.getY() + minY;
+            double z = center.getZ() + minZ;
+            return new Box(x, y, z, x + sizeX, y + sizeY, z + sizeZ);
+        }
+
+        /**
+         * Whether the box overlaps a cell of the shape placed at center.
+         */
+        public boolean overlaps(Box box, BlockPos center) {
+            int x0 = Math.max(MathHelper.floor(box.minX) - center.getX(), minX);
+            int y0 = Math.max(MathHelper.floor(box.minY) - center.getY(), minY);
+            int z0 = Math.max(MathHelper.floor(box.minZ) - center.getZ(), minZ);
+            int x1 = Math.min(MathHelper.ceil(box.maxX) - 1 - center.getX(), minX + sizeX - 1);
+            int y1 = Math.min(MathHelper.ceil(box.maxY) - 1 - center.getY(), minY + sizeY - 1);
+            int z1 = Math.min(MathHelper.ceil(box.maxZ) - 1 - center.getZ(), minZ + sizeZ - 1);
+
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    for (int x = x0; x <= x1; x++) {
+                        if (contains(x, y, z)) return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Like overlaps(), but only looks at the footprint; the caller's query box bounds the height.
+         */
+        public boolean overlapsColumns(Box box, BlockPos center) {
+            int x0 = Math.max(MathHelper.floor(box.minX) - center.getX(), minX);
+            int z0 = Math.max(MathHelper.floor(box.minZ) - center.getZ(), minZ);
+            int x1 = Math.min(MathHelper.ceil(box.maxX) - 1 - center.getX(), minX + sizeX - 1);
+            int z1 = Math.min(MathHelper.ceil(box.maxZ) - 1 - center.getZ(), minZ + sizeZ - 1);
+
+            for (int z = z0; z <= z1; z++) {
+                for (int x = x0; x <= x1; x++) {
+                    if (containsColumn(x, z)) return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Cos/sin table for points evenly spaced around a circle, starting at angle 0.
+     */
+    public static final class Circle {
+        private final double[] cos;
+        private final double[] sin;
+
+        private Circle(int points) {
+            if (points <= 0) throw new IllegalArgumentException("Circle needs at least one point");
+            cos = new double[points];
+            sin = new double[points];
+            for (int i = 0; i < points; i++) {
+                double angle = (2 * Math.PI * i) / points;
+                cos[i] = Math.cos(angle);
+                sin[i] = Math.sin(angle);
+            }
+        }
+
+        public int size() {
+            return cos.length;
+        }
+
+        public double cos(int index) {
+            return cos[index];
+        }
+
+        public double sin(int index) {
+            return sin[index];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package empegrail.forgotten_knowledge.world;
+
+import empegrail.forgotten_knowledge.ModConfig;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.Chunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the top block of a column by reading the chunk heightmap instead of scanning the column.
+ *
+ * Meant to live for a single cast: it remembers the last chunk it touched and every column it already
+ * resolved, so a large area costs one heightmap read per column.
+ */
+public final class SurfaceLocator {
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final ServerWorld world;
+    private final Heightmap.Type heightmap;
+    private final Long2IntOpenHashMap columns = new Long2IntOpenHashMap();
+
+    private long lastChunkPos = Long.MIN_VALUE;
+    @Nullable private Chunk lastChunk;
+
+    public SurfaceLocator(ServerWorld world) {
+        this(world, ModConfig.surfaceHeightmap);
+    }
+
+    public SurfaceLocator(ServerWorld world, Heightmap.Type heightmap) {
+        this.world = world;
+        this.heightmap = heightmap;
+        this.columns.defaultReturnValue(UNKNOWN);
+    }
+
+    /**
+     * Top block of the column at (x, z) according to the heightmap, or null if the column is empty.
+     */
+    @Nullable
+    public BlockPos find(int x, int z) {
+        int y = getTopY(x, z);
+        return y < world.getBottomY() ? null : new BlockPos(x, y, z);
+    }
+
+    /**
+     * Y of the top block of the column, below the world bottom if the column is empty.
+     */
+    public int getTopY(int x, int z) {
+        long column = ChunkPos.toLong(x, z); // just a packed (x, z) pair here
+        int y = columns.get(column);
+        if (y == UNKNOWN) {
+            y = getChunk(x >> 4, z >> 4).sampleHeightmap(heightmap, x & 15, z & 15);
+            columns.put(column, y);
+        }
+        return y;
+    }
+
+    private Chunk getChunk(int chunkX, int chunkZ) {
+        long pos = ChunkPos.toLong(chunkX, chunkZ);
+        if (pos != lastChunkPos || lastChunk == null) {
+            lastChunk = world.getChunk(chunkX, chunkZ);
+            lastChunkPos = pos;
+        }
+        return lastChunk;
+    }
+}
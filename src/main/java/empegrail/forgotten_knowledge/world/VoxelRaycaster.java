@@ -0,0 +1,174 @@
+package empegrail.forgotten_knowledge.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.ShapeContext;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import net.minecraft.world.BlockView;
+
+/**
+ * Exact block traversal along a segment (Amanatides-Woo voxel walk).
+ *
+ * Every block the segment passes through is visited once, in order, and tested against its collision
+ * shape, so grass and flowers are passed through and corner clips are not missed. Full cubes, which are
+ * nearly everything, are resolved from the walk itself; partial shapes fall back to VoxelShape.raycast.
+ *
+ * An instance keeps its result in fields and reuses its position, so a cast that hits a full cube or
+ * nothing allocates nothing. Keep one instance per user (e.g. per projectile), not shared across threads.
+ */
+public final class VoxelRaycaster {
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+
+    private boolean hit;
+    private boolean insideBlock;
+    private Direction side = Direction.UP;
+    private double hitX, hitY, hitZ;
+
+    public boolean cast(BlockView world, Vec3d from, Vec3d to, ShapeContext context) {
+        return cast(world, from.x, from.y, from.z, to.x, to.y, to.z, context);
+    }
+
+    /**
+     * Walk from (x0, y0, z0) to (x1, y1, z1) and stop at the first block whose collision shape is hit.
+     *
+     * @return true if a block was hit; the details are then available from the getters
+     */
+    public boolean cast(BlockView world, double x0, double y0, double z0,
+                        double x1, double y1, double z1, ShapeContext context) {
+        hit = false;
+
+        double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        int x = MathHelper.floor(x0), y = MathHelper.floor(y0), z = MathHelper.floor(z0);
+        int endX = MathHelper.floor(x1), endY = MathHelper.floor(y1), endZ = MathHelper.floor(z1);
+
+        int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+
+        // Segment parameter (0..1) per block crossed, and at the next boundary on each axis
+        double deltaX = stepX == 0 ? Double.MAX_VALUE : 1.0 / Math.abs(dx);
+        double deltaY = stepY == 0 ? Double.MAX_VALUE : 1.0 / Math.abs(dy);
+        double deltaZ = stepZ == 0 ? Double.MAX_VALUE : 1.0 / Math.abs(dz);
+        double maxX = stepX == 0 ? Double.MAX_VALUE : (stepX > 0 ? x + 1 - x0 : x0 - x) * deltaX;
+        double maxY = stepY == 0 ? Double.MAX_VALUE : (stepY > 0 ? y + 1 - y0 : y0 - y) * deltaY;
+        double maxZ = stepZ == 0 ? Double.MAX_VALUE : (stepZ > 0 ? z + 1 - z0 : z0 - z) * deltaZ;
+
+        // The face we came in through; null for the starting block
+        Direction entered = null;
+        double t = 0.0;
+        int blocksLeft = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+
+        while (true) {
+            if (testBlock(world, x, y, z, entered, t, x0, y0, z0, x1, y1, z1, context)) {
+                return true;
+            }
+            if (blocksLeft-- <= 0) {
+                return false;
+            }
+
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                t = maxX;
+                maxX += deltaX;
+                entered = stepX > 0 ? Direction.WEST : Direction.EAST;
+            } else if (maxY < maxZ) {
+                y += stepY;
+                t = maxY;
+                maxY += deltaY;
+                entered = stepY > 0 ? Direction.DOWN : Direction.UP;
+            } else {
+                z += stepZ;
+                t = maxZ;
+                maxZ += deltaZ;
+                entered = stepZ > 0 ? Direction.NORTH : Direction.SOUTH;
+            }
+        }
+    }
+
+    private boolean testBlock(BlockView world, int x, int y, int z, Direction entered, double t,
+                              double x0, double y0, double z0, double x1, double y1, double z1,
+                              ShapeContext context) {
+        pos.set(x, y, z);
+        BlockState state = world.getBlockState(pos);
+        if (state.isAir()) return false;
+
+        VoxelShape shape = state.getCollisionShape(world, pos, context);
+        if (shape.isEmpty()) return false;
+
+        if (shape == VoxelShapes.fullCube()) {
+            if (entered == null) {
+                // Started inside a solid block; report it the way vanilla does
+                insideBlock = true;
+                side = Direction.getFacing(x1 - x0, y1 - y0, z1 - z0).getOpposite();
+                t = 0.0;
+            } else {
+                insideBlock = false;
+                side = entered;
+            }
+            hitX = x0 + (x1 - x0) * t;
+            hitY = y0 + (y1 - y0) * t;
+            hitZ = z0 + (z1 - z0) * t;
+            hit = true;
+            return true;
+        }
+
+        // Slabs, stairs, fences...: let the shape do the exact test (rare, so allocating is fine)
+        BlockHitResult result = shape.raycast(new Vec3d(x0, y0, z0), new Vec3d(x1, y1, z1), pos.toImmutable());
+        if (result == null) return false;
+
+        insideBlock = result.isInsideBlock();
+        side = result.getSide();
+        hitX = result.getPos().x;
+        hitY = result.getPos().y;
+        hitZ = result.getPos().z;
+        hit = true;
+        return true;
+    }
+
+    public boolean hasHit() {
+        return hit;
+    }
+
+    /**
+     * Position of the block that was hit. Reused by the next cast; copy it to keep it.
+     */
+    public BlockPos getBlockPos() {
+        return pos;
+    }
+
+    /**
+     * Face of the block the segment came in through.
+     */
+    public Direction getSide() {
+        return side;
+    }
+
+    public boolean isInsideBlock() {
+        return insideBlock;
+    }
+
+    public double getHitX() {
+        return hitX;
+    }
+
+    public double getHitY() {
+        return hitY;
+    }
+
+    public double getHitZ() {
+        return hitZ;
+    }
+
+    /**
+     * Copy the last hit into a regular hit result.
+     */
+    public BlockHitResult toHitResult() {
+        if (!hit) throw new IllegalStateException("Last cast did not hit a block");
+        return new BlockHitResult(new Vec3d(hitX, hitY, hitZ), side, pos.toImmutable(), insideBlock);
+    }
+}